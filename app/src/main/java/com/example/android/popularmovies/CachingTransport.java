@@ -0,0 +1,167 @@
+package com.example.android.popularmovies;
+
+import android.util.Log;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@link HttpTransport} decorator that serves responses from a {@link DiskResponseCache}. Fresh
+ * entries, as determined by the Cache-Control max-age of the original response, are returned
+ * without touching the network. Stale entries are revalidated with If-None-Match and
+ * If-Modified-Since so that an unchanged response costs a 304 rather than a full download.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class CachingTransport implements HttpTransport {
+
+    private static final String LOG_TAG = CachingTransport.class.getSimpleName();
+
+    private final HttpTransport mDelegate;
+    private final DiskResponseCache mCache;
+
+    /**
+     * Constructor
+     * @param delegate the transport used for requests that can't be served from the cache
+     * @param cache the cache to store responses in
+     */
+    public CachingTransport(HttpTransport delegate, DiskResponseCache cache) {
+        mDelegate = delegate;
+        mCache = cache;
+    }
+
+    @Override
+    public TransportResponse execute(URL url, Map<String, String> requestHeaders)
+            throws IOException {
+
+        String key = url.toString();
+        long now = System.currentTimeMillis();
+        DiskResponseCache.Entry cached = mCache.get(key);
+
+        // Serve fresh entries straight from disk
+        if (cached != null && cached.isFresh(now)) {
+            mCache.recordHit(cached.getBody().length);
+            logStats();
+            return fromCache(cached);
+        }
+
+        // Otherwise ask the server whether our copy is still valid
+        Map<String, String> headers = new HashMap<>(requestHeaders);
+        if (cached != null) {
+            if (cached.getETag() != null) {
+                headers.put("If-None-Match", cached.getETag());
+            }
+            if (cached.getLastModified() != null) {
+                headers.put("If-Modified-Since", cached.getLastModified());
+            }
+        }
+
+        TransportResponse response = mDelegate.execute(url, headers);
+
+        if (cached != null && response.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            // Our copy is still good; extend its lifetime, take any new validators the server
+            // sent and serve it
+            response.close();
+            cached = cached.revalidated(expiryOf(response, now), response.getHeader("ETag"),
+                    response.getHeader("Last-Modified"));
+            mCache.put(cached);
+            mCache.recordRevalidation(cached.getBody().length);
+            logStats();
+            return fromCache(cached);
+        }
+
+        mCache.recordMiss();
+        logStats();
+
+        if (response.getResponseCode() != HttpURLConnection.HTTP_OK || !isStorable(response)) {
+            return response;
+        }
+
+        // Read the body so it can be both stored and returned
+        byte[] body;
+        try {
+            body = ResponseBodyReader.readBytes(response.getBody(), response.getContentLength());
+        } finally {
+            response.close();
+        }
+        mCache.put(new DiskResponseCache.Entry(key, expiryOf(response, now),
+                response.getHeader("ETag"), response.getHeader("Last-Modified"), body));
+
+        return new TransportResponse(response.getResponseCode(), response.getHeaders(),
+                new ByteArrayInputStream(body), body.length, null);
+    }
+
+    /**
+     * @param response a successful response
+     * @return true if the response may be stored and can be reused or revalidated later
+     */
+    private static boolean isStorable(TransportResponse response) {
+        String cacheControl = response.getHeader("Cache-Control");
+        if (cacheControl != null
+                && cacheControl.toLowerCase(Locale.US).contains("no-store")) {
+            return false;
+        }
+        return maxAgeSeconds(cacheControl) > 0 || response.getHeader("ETag") != null
+                || response.getHeader("Last-Modified") != null;
+    }
+
+    /**
+     * @param response the response from the server
+     * @param requestTime when the request was sent, in milliseconds
+     * @return the time at which the response stops being fresh, in milliseconds
+     */
+    private static long expiryOf(TransportResponse response, long requestTime) {
+        String cacheControl = response.getHeader("Cache-Control");
+        if (cacheControl != null && cacheControl.toLowerCase(Locale.US).contains("no-cache")) {
+            return requestTime;
+        }
+        return requestTime + maxAgeSeconds(cacheControl) * 1000L;
+    }
+
+    /**
+     * @param cacheControl the value of the Cache-Control header, may be null
+     * @return the max-age directive in seconds, or 0 if there is none
+     */
+    private static long maxAgeSeconds(String cacheControl) {
+        if (cacheControl == null) {
+            return 0;
+        }
+        for (String directive : cacheControl.split(",")) {
+            String trimmed = directive.trim().toLowerCase(Locale.US);
+            if (trimmed.startsWith("max-age=")) {
+                try {
+                    return Math.max(0, Long.parseLong(trimmed.substring("max-age=".length())));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static TransportResponse fromCache(DiskResponseCache.Entry entry) {
+        Map<String, String> headers = new HashMap<>();
+        if (entry.getETag() != null) {
+            headers.put("ETag", entry.getETag());
+        }
+        if (entry.getLastModified() != null) {
+            headers.put("Last-Modified", entry.getLastModified());
+        }
+        return new TransportResponse(HttpURLConnection.HTTP_OK, headers,
+                new ByteArrayInputStream(entry.getBody()), entry.getBody().length, null);
+    }
+
+    private void logStats() {
+        if (Log.isLoggable(LOG_TAG, Log.DEBUG)) {
+            Log.d(LOG_TAG, mCache.toString());
+            Log.d(LOG_TAG, ResponseBodyReader.getStats());
+        }
+    }
+}
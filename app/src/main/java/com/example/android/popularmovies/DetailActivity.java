@@ -25,10 +25,10 @@ public class DetailActivity extends AppCompatActivity {
         setContentView(R.layout.activity_detail);
 
         if (savedInstanceState == null) {
-            // Create a bundle out of the Movie object passed to this activity
+            // Create a bundle out of the Movie ID passed to this activity
             Bundle arguments = new Bundle();
-            arguments.putParcelable(DetailFragment.DETAIL_MOVIE, getIntent().getParcelableExtra(
-                    DetailFragment.DETAIL_MOVIE));
+            arguments.putString(DetailFragment.DETAIL_MOVIE_ID, getIntent().getStringExtra(
+                    DetailFragment.DETAIL_MOVIE_ID));
 
             // Create the detail fragment and add it to the activity using a fragment transaction
             DetailFragment fragment = new DetailFragment();
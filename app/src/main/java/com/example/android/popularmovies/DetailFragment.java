@@ -1,14 +1,16 @@
 package com.example.android.popularmovies;
 
-import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
+import android.os.AsyncTask;
 import android.os.Bundle;
 import android.support.annotation.Nullable;
 import android.support.v4.app.Fragment;
 import android.support.v4.app.LoaderManager;
 import android.support.v4.content.Loader;
-import android.util.Log;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.text.TextPaint;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -18,35 +20,45 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import com.squareup.picasso.Picasso;
-
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import java.util.List;
-import java.util.Set;
+import com.squareup.picasso.RequestCreator;
 
 /**
  * Fragment used to receive and display details about the selected movie
  *
  * @author Chase Strackbein
- * @version 1.0
+ * @version 1.3
  * @since 2016-09-29
  */
-public class DetailFragment extends Fragment implements LoaderManager.LoaderCallbacks<List<String>> {
+public class DetailFragment extends Fragment implements LoaderManager.LoaderCallbacks<MovieExtras> {
 
     private static final String LOG_TAG = DetailFragment.class.getSimpleName();
-    static final String DETAIL_MOVIE = "movie";
+    // Only the Movie's ID is passed; the Movie itself is resolved through the MovieRegistry
+    static final String DETAIL_MOVIE_ID = "movie_id";
 
+    private String mMovieId;
     private Movie mMovie;
 
     private static final int DETAIL_LOADER = 1;
+    private static final int REVIEW_PAGE_LOADER = 2;
+    private static final int MOVIE_LOADER = 3;
+    private static final String ARG_REVIEW_PAGE = "review_page";
+
+    private TextView mEmptyView;
+    private RecyclerView mRecyclerView;
+    private ExtrasAdapter mExtrasAdapter;
+    // The next page of reviews to load, and whether one is loading
+    private int mNextReviewPage = 2;
+    private boolean mLoadingReviews;
+
+    // What the synopsis and reviews are laid out with, so they can be laid out in the background
+    private TextPaint mTextPaint;
+    private int mTextWidth;
 
     private ImageView mPosterView;
     private TextView mTitleView;
     private TextView mReleaseDateView;
     private TextView mRatingView;
-    private TextView mSynopsisView;
+    private PrecomputedTextView mSynopsisView;
     private boolean mMovieIsFavorite;
 
     /**
@@ -61,189 +73,352 @@ public class DetailFragment extends Fragment implements LoaderManager.LoaderCall
         void onUnfavorite();
     }
 
+    /**
+     * Loads the poster in the size the poster view needs. If a smaller size is already cached,
+     * such as the grid's, it is shown first and replaced once the right size arrives.
+     */
+    private void loadPoster() {
+        final Picasso picasso = PosterCache.getPicasso(getContext());
+        final int width = PosterUrlResolver.getTargetWidth(mPosterView);
+        final int height = Math.max(0, mPosterView.getLayoutParams().height);
+        final String url = PosterUrlResolver.resolve(mMovie, width);
+        final com.squareup.picasso.Callback markLoaded = new com.squareup.picasso.Callback() {
+            @Override
+            public void onSuccess() {
+                PosterUrlResolver.markLoaded(url);
+            }
+
+            @Override
+            public void onError() {
+            }
+        };
+
+        String previewUrl = PosterUrlResolver.resolveCachedPreview(mMovie, width);
+        if (previewUrl == null) {
+            createPosterRequest(picasso, url, width, height).into(mPosterView, markLoaded);
+            return;
+        }
+        createPosterRequest(picasso, previewUrl, width, height)
+                .into(mPosterView, new com.squareup.picasso.Callback() {
+                    @Override
+                    public void onSuccess() {
+                        // Keep the preview on screen until the full size replaces it
+                        createPosterRequest(picasso, url, width, height).noPlaceholder()
+                                .into(mPosterView, markLoaded);
+                    }
+
+                    @Override
+                    public void onError() {
+                        createPosterRequest(picasso, url, width, height)
+                                .into(mPosterView, markLoaded);
+                    }
+                });
+    }
+
+    private static RequestCreator createPosterRequest(Picasso picasso, String url, int width,
+                                                      int height) {
+        RequestCreator request = picasso.load(url);
+        // Decode at the size the poster is shown at, when it is known
+        return width > 0 && height > 0 ? request.resize(width, height).centerInside() : request;
+    }
+
     @Nullable
     @Override
     public View onCreateView(LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
-        // Retrieve the Movie which will be displayed
+        // Retrieve the Movie which will be displayed. Only memory is checked here; a Movie that
+        // has to be read back from the databases is resolved by a loader.
         Bundle arguments = getArguments();
         if (arguments != null) {
-            mMovie = arguments.getParcelable(DETAIL_MOVIE);
+            mMovieId = arguments.getString(DETAIL_MOVIE_ID);
+            mMovie = MovieRegistry.peek(mMovieId);
         }
 
         // Find views
         View rootView = inflater.inflate(R.layout.fragment_detail, container, false);
-        mPosterView = (ImageView) rootView.findViewById(R.id.poster_image_view);
-        mTitleView = (TextView) rootView.findViewById(R.id.title_text_view);
-        mReleaseDateView = (TextView) rootView.findViewById(R.id.release_text_view);
-        mRatingView = (TextView) rootView.findViewById(R.id.rating_text_view);
-        mSynopsisView = (TextView) rootView.findViewById(R.id.synopsis_text_view);
-        TextView emptyView = (TextView) rootView.findViewById(R.id.movie_detail_no_content_text_view);
+        mEmptyView = (TextView) rootView.findViewById(R.id.movie_detail_no_content_text_view);
+        mRecyclerView = (RecyclerView) rootView.findViewById(R.id.extras_recycler_view);
 
-        // If the Movie is not null, populate the fragment
         if (mMovie != null) {
-            emptyView.setVisibility(View.GONE);
-            Picasso.with(getContext()).load(mMovie.getPosterUrl()).into(mPosterView);
-            mTitleView.setText(mMovie.getTitle());
-            mReleaseDateView.setText(mMovie.getYear());
-            mRatingView.setText(mMovie.getRatingAsString());
-            mSynopsisView.setText(mMovie.getSynopsis());
-
-            final Button fav = (Button) rootView.findViewById(R.id.favorite_button);
-            mMovieIsFavorite = Utility.isFavorite(getContext(), mMovie.getMovieId());
-            // Depending on if the movie is in Favorites, set button text accordingly
-            if (mMovieIsFavorite) {
-                fav.setText(getString(R.string.unfavorite));
-            } else {
-                fav.setText(getString(R.string.favorite));
-            }
-            // Attach OnClickListener to Favorites button to handle adding/removing from Favorites
-            fav.setOnClickListener(new View.OnClickListener() {
+            showMovie(container);
+        } else if (mMovieId != null) {
+            // Leave the screen blank until the Movie is resolved
+            mEmptyView.setVisibility(View.GONE);
+        }
+
+        return rootView;
+    }
+
+    /**
+     * Populates the fragment once the Movie is known. The details are the first row of the list,
+     * followed by the trailers and reviews once they have loaded.
+     * @param container the view the fragment is added to, may be null
+     */
+    private void showMovie(ViewGroup container) {
+        mEmptyView.setVisibility(View.GONE);
+        mMovieIsFavorite = Utility.isFavorite(getContext(), mMovie.getMovieId());
+
+        // Start laying out the synopsis while the rest of the screen is being built. If the width
+        // it will have can't be known yet, it is laid out as it is bound, and the reviews are laid
+        // out ahead of time once the list has been laid out.
+        mTextPaint = PrecomputedTextView.createPaint(getActivity());
+        mTextWidth = getTextWidth(container);
+        if (mTextWidth > 0) {
+            TextLayoutCache.precompute(mMovie.getSynopsis(), mTextPaint, mTextWidth);
+        } else {
+            mRecyclerView.addOnLayoutChangeListener(new View.OnLayoutChangeListener() {
                 @Override
-                public void onClick(View v) {
-                    Set<String> favorites = Utility.getFavorites(getContext());
-                    if (mMovieIsFavorite) {
-                        favorites.remove(mMovie.getMovieId());
-                        mMovieIsFavorite = false;
-                        Toast.makeText(getContext(), mMovie.getTitle() + " has been removed from your favorites", Toast.LENGTH_SHORT).show();
-                        fav.setText(getString(R.string.favorite));
-                        if (getActivity() instanceof MainActivity) {
-                            ((Callback) getActivity()).onUnfavorite();
-                        }
-                    } else {
-                        favorites.add(mMovie.getMovieId());
-                        mMovieIsFavorite = true;
-                        Toast.makeText(getContext(), mMovie.getTitle() + " has been added to your favorites", Toast.LENGTH_SHORT).show();
-                        fav.setText(getString(R.string.unfavorite));
+                public void onLayoutChange(View v, int left, int top, int right, int bottom,
+                                           int oldLeft, int oldTop, int oldRight, int oldBottom) {
+                    int width = getTextWidth(null);
+                    if (width <= 0) {
+                        return;
+                    }
+                    v.removeOnLayoutChangeListener(this);
+                    mTextWidth = width;
+                    // The extras are most likely still being fetched, so their reviews can
+                    // still be laid out in the background
+                    Loader<MovieExtras> loader = getLoaderManager().getLoader(DETAIL_LOADER);
+                    if (loader instanceof MovieExtrasLoader) {
+                        ((MovieExtrasLoader) loader).setReviewTextLayout(mTextPaint, mTextWidth);
                     }
-                    Utility.saveFavorites(getContext(), favorites);
                 }
             });
         }
 
-        return rootView;
+        mExtrasAdapter = new ExtrasAdapter(getContext(), new ExtrasAdapter.Listener() {
+            @Override
+            public void onBindHeader(View headerView) {
+                bindHeader(headerView);
+            }
+
+            @Override
+            public void onTrailerClick(Trailer trailer) {
+                // Create the intent to open the video
+                Intent intent = new Intent(Intent.ACTION_VIEW,
+                        Uri.parse(trailer.getVideoUrl()));
+                startActivity(intent);
+            }
+
+            @Override
+            public void onLoadMoreReviews() {
+                loadNextReviewPage();
+            }
+        });
+        mRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
+        mRecyclerView.setAdapter(mExtrasAdapter);
+    }
+
+    /**
+     * Works out how wide the synopsis and reviews are, before anything is laid out: the width of
+     * the list inside its padding. The list fills the fragment's container, which may be laid out
+     * already, such as the details pane on tablets, and in DetailActivity it fills the screen.
+     * @param container the view the fragment is added to, may be null
+     * @return the width of the text in pixels, or 0 if it isn't known yet
+     */
+    private int getTextWidth(ViewGroup container) {
+        int width = mRecyclerView.getWidth();
+        if (width == 0 && container != null) {
+            width = container.getWidth();
+        }
+        if (width == 0 && getActivity() instanceof DetailActivity) {
+            width = getResources().getDisplayMetrics().widthPixels;
+        }
+        if (width == 0) {
+            return 0;
+        }
+        return Math.max(0, width - mRecyclerView.getPaddingLeft()
+                - mRecyclerView.getPaddingRight());
+    }
+
+    /**
+     * Starts loading the trailers and reviews, once the Movie is known
+     */
+    private void startExtrasLoader() {
+        if (mMovie != null) {
+            getLoaderManager().initLoader(DETAIL_LOADER, null, this);
+        }
+    }
+
+    /**
+     * Populates the header row with the Movie's details
+     * @param rootView the header, inflated from detail_header_layout
+     */
+    private void bindHeader(View rootView) {
+        mPosterView = (ImageView) rootView.findViewById(R.id.poster_image_view);
+        mTitleView = (TextView) rootView.findViewById(R.id.title_text_view);
+        mReleaseDateView = (TextView) rootView.findViewById(R.id.release_text_view);
+        mRatingView = (TextView) rootView.findViewById(R.id.rating_text_view);
+        mSynopsisView = (PrecomputedTextView) rootView.findViewById(R.id.synopsis_text_view);
+
+        loadPoster();
+        mTitleView.setText(mMovie.getTitle());
+        mReleaseDateView.setText(mMovie.getYear());
+        mRatingView.setText(mMovie.getRatingAsString());
+        mSynopsisView.setText(mMovie.getSynopsis());
+
+        final Button fav = (Button) rootView.findViewById(R.id.favorite_button);
+        // Depending on if the movie is in Favorites, set button text accordingly
+        if (mMovieIsFavorite) {
+            fav.setText(getString(R.string.unfavorite));
+        } else {
+            fav.setText(getString(R.string.favorite));
+        }
+        // Attach OnClickListener to Favorites button to handle adding/removing from Favorites
+        fav.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                final FavoritesStore store = FavoritesStore.getInstance(getContext());
+                final Movie movie = mMovie;
+                if (mMovieIsFavorite) {
+                    Utility.removeFavorite(getContext(), mMovie.getMovieId());
+                    // Remove the stored movie record off the main thread
+                    AsyncTask.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            store.removeFavorite(movie.getMovieId());
+                        }
+                    });
+                    mMovieIsFavorite = false;
+                    Toast.makeText(getContext(), mMovie.getTitle() + " has been removed from your favorites", Toast.LENGTH_SHORT).show();
+                    fav.setText(getString(R.string.favorite));
+                    if (getActivity() instanceof MainActivity) {
+                        ((Callback) getActivity()).onUnfavorite();
+                    }
+                } else {
+                    Utility.addFavorite(getContext(), mMovie.getMovieId());
+                    // Store the full movie record off the main thread so the Favorites can
+                    // be shown without any network requests
+                    AsyncTask.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            store.saveFavorite(movie);
+                        }
+                    });
+                    mMovieIsFavorite = true;
+                    Toast.makeText(getContext(), mMovie.getTitle() + " has been added to your favorites", Toast.LENGTH_SHORT).show();
+                    fav.setText(getString(R.string.unfavorite));
+                }
+            }
+        });
+    }
+
+    /**
+     * Starts loading the next page of reviews, unless one is already loading
+     */
+    private void loadNextReviewPage() {
+        if (mLoadingReviews) {
+            return;
+        }
+        mLoadingReviews = true;
+        Bundle args = new Bundle();
+        args.putInt(ARG_REVIEW_PAGE, mNextReviewPage);
+        getLoaderManager().restartLoader(REVIEW_PAGE_LOADER, args, mReviewPageCallbacks);
     }
 
     @Override
     public void onActivityCreated(@Nullable Bundle savedInstanceState) {
-        // Initialize the loader when the activity is created
-        getLoaderManager().initLoader(DETAIL_LOADER, null, this);
+        // Initialize the loader when the activity is created, once the Movie is known
+        if (mMovie != null) {
+            startExtrasLoader();
+        } else if (mMovieId != null) {
+            getLoaderManager().initLoader(MOVIE_LOADER, null, mMovieCallbacks);
+        }
         super.onActivityCreated(savedInstanceState);
     }
 
     @Override
-    public Loader<List<String>> onCreateLoader(int id, Bundle args) {
+    public Loader<MovieExtras> onCreateLoader(int id, Bundle args) {
         // If the Movie is not null, create a MovieExtrasLoader to retrieve the movie's videos and
         // reviews from TheMovieDB API
         if (mMovie != null) {
-            // Now create and return a MovieExtraLoader that will take care of creating a List<String>
-            // for the data being displayed.
-            return new MovieExtrasLoader(getContext(), mMovie.getMovieId());
+            // Now create and return a MovieExtraLoader that will take care of creating the
+            // MovieExtras for the data being displayed.
+            MovieExtrasLoader extrasLoader =
+                    new MovieExtrasLoader(getContext(), mMovie.getMovieId());
+            // Lay out the reviews in the background too, so binding them only attaches layouts
+            extrasLoader.setReviewTextLayout(mTextPaint, mTextWidth);
+            return extrasLoader;
         }
 
         return null;
     }
 
     @Override
-    public void onLoadFinished(Loader<List<String>> loader, List<String> data) {
-        // If the data received is not null, parse it and populate the trailer and review views
-        if (data != null) {
-
-            // Try to parse the JSON response. If there's a problem with the way the JSON is formatted,
-            // catch the thrown JSONException.
-            try {
-                // Create JSONObject out of JSON response string
-                JSONObject rootData = new JSONObject(data.get(0));
-                // Extract array of trailers from result
-                JSONArray results = rootData.getJSONArray("results");
-
-                // Prep the ViewGroup in which the trailers will be inserted
-                LayoutInflater inflater = (LayoutInflater) getContext()
-                        .getSystemService(Context.LAYOUT_INFLATER_SERVICE);
-                ViewGroup videoRoot = (ViewGroup) getActivity().findViewById(R.id.trailers_linear_layout);
-
-                // If there are no trailers, insert the placeholder view to alert the user
-                if (results.length() == 0) {
-                    View view = inflater.inflate(R.layout.trailer_no_items_layout, null);
-                    videoRoot.addView(view, 1, new ViewGroup.LayoutParams(
-                            ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
-                }
-                // For each trailer, extract its title and URL and populate a view with this information
-                for (int i=0; i<results.length(); i++) {
-
-                    final JSONObject video = results.getJSONObject(i);
-
-                    View view = inflater.inflate(R.layout.trailer_item_layout, null);
-                    ((TextView) view.findViewById(R.id.trailer_name_textview)).setText(video.getString("name"));
+    public void onLoadFinished(Loader<MovieExtras> loader, MovieExtras data) {
+        // If the data received is not null, add the trailer and review rows. Everything was
+        // parsed in the background, and only the rows on screen are bound.
+        if (data != null && mExtrasAdapter != null) {
+            mExtrasAdapter.setExtras(data);
+            mNextReviewPage = 2;
 
-                    videoRoot.addView(view, i+1, new ViewGroup.LayoutParams(
-                            ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+            // Destroy the loader to prevent it from reloading the information unnecessarily
+            getLoaderManager().destroyLoader(DETAIL_LOADER);
+        }
+    }
 
-                    final String youtubeKey = video.getString("key");
+    @Override
+    public void onLoaderReset(Loader<MovieExtras> loader) {
 
-                    // Attach an OnClickListener to create the intent to open the video
-                    view.setOnClickListener(new View.OnClickListener() {
-                        @Override
-                        public void onClick(View v) {
-                            Intent intent = new Intent(Intent.ACTION_VIEW,
-                                    Uri.parse("http://www.youtube.com/watch?v=" + youtubeKey));
-                            startActivity(intent);
-                        }
-                    });
+    }
 
+    // Loads further pages of reviews as the user scrolls through them
+    private final LoaderManager.LoaderCallbacks<ReviewPage> mReviewPageCallbacks =
+            new LoaderManager.LoaderCallbacks<ReviewPage>() {
+                @Override
+                public Loader<ReviewPage> onCreateLoader(int id, Bundle args) {
+                    ReviewPageLoader pageLoader = new ReviewPageLoader(getContext(),
+                            mMovie.getMovieId(), args.getInt(ARG_REVIEW_PAGE));
+                    pageLoader.setReviewTextLayout(mTextPaint, mTextWidth);
+                    return pageLoader;
                 }
 
-            } catch (JSONException e) {
-                // Catch any JSONException errors and print them to the log
-                Log.e(LOG_TAG, "Problem parsing the video JSON results", e);
-            }
-
-            // Try to parse the JSON response. If there's a problem with the way the JSON is formatted,
-            // catch the thrown JSONException.
-            try {
-                // Create JSONObject out of JSON response string
-                JSONObject rootData = new JSONObject(data.get(1));
-                // Extract array of reviews from results
-                JSONArray results = rootData.getJSONArray("results");
-
-                // Prep the ViewGroup in which the reviews will be inserted
-                LayoutInflater inflater = (LayoutInflater) getContext()
-                        .getSystemService(Context.LAYOUT_INFLATER_SERVICE);
-                ViewGroup reviewRoot = (ViewGroup) getActivity().findViewById(R.id.reviews_linear_layout);
-
-                // If there are no reviews, insert the placeholder view to alert the user
-                if (results.length() == 0) {
-                    View view = inflater.inflate(R.layout.reviews_no_items_layout, null);
-                    reviewRoot.addView(view, 1, new ViewGroup.LayoutParams(
-                            ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+                @Override
+                public void onLoadFinished(Loader<ReviewPage> loader, ReviewPage data) {
+                    mLoadingReviews = false;
+                    if (mExtrasAdapter == null) {
+                        return;
+                    }
+                    if (data == null || data.getReviews().isEmpty()) {
+                        // Stop paging rather than retrying a page that failed
+                        mExtrasAdapter.stopLoadingReviews();
+                    } else {
+                        mExtrasAdapter.addReviewPage(data);
+                        mNextReviewPage = ((ReviewPageLoader) loader).getPage() + 1;
+                    }
+                    getLoaderManager().destroyLoader(REVIEW_PAGE_LOADER);
                 }
 
-                // For each review, extract its author and content and populate a view with this information
-                for (int i=0; i<results.length(); i++) {
-
-                    final JSONObject video = results.getJSONObject(i);
-
-                    View view = inflater.inflate(R.layout.review_item_layout, null);
-
-                    ((TextView) view.findViewById(R.id.author_textview)).setText(video.getString("author"));
-                    ((TextView) view.findViewById(R.id.content_textview)).setText(video.getString("content"));
-
-                    reviewRoot.addView(view, i+1, new ViewGroup.LayoutParams(
-                            ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+                @Override
+                public void onLoaderReset(Loader<ReviewPage> loader) {
 
                 }
+            };
 
-            } catch (JSONException e) {
-                // Catch any JSONException errors and print them to the log
-                Log.e(LOG_TAG, "Problem parsing the review JSON results", e);
-            }
+    // Resolves a Movie that wasn't in memory, then shows it and starts loading its extras
+    private final LoaderManager.LoaderCallbacks<Movie> mMovieCallbacks =
+            new LoaderManager.LoaderCallbacks<Movie>() {
+                @Override
+                public Loader<Movie> onCreateLoader(int id, Bundle args) {
+                    return new MovieResolveLoader(getContext(), mMovieId);
+                }
 
-            // Destroy the loader to prevent it from reloading the information unnecessarily
-            getLoaderManager().destroyLoader(DETAIL_LOADER);
-        }
-    }
+                @Override
+                public void onLoadFinished(Loader<Movie> loader, Movie data) {
+                    if (mMovie != null || getView() == null) {
+                        return;
+                    }
+                    if (data == null) {
+                        mEmptyView.setVisibility(View.VISIBLE);
+                        return;
+                    }
+                    mMovie = data;
+                    showMovie((ViewGroup) getView().getParent());
+                    startExtrasLoader();
+                }
 
-    @Override
-    public void onLoaderReset(Loader<List<String>> loader) {
+                @Override
+                public void onLoaderReset(Loader<Movie> loader) {
 
-    }
+                }
+            };
 }
@@ -0,0 +1,356 @@
+package com.example.android.popularmovies;
+
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded on-disk store of HTTP response bodies along with their validators (ETag and
+ * Last-Modified) and freshness lifetime. The least recently used entries are evicted once the
+ * total size of the cache exceeds its limit. Used by {@link CachingTransport}.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class DiskResponseCache {
+
+    private static final String LOG_TAG = DiskResponseCache.class.getSimpleName();
+    private static final String ENTRY_SUFFIX = ".entry";
+    private static final int FORMAT_VERSION = 1;
+
+    private final File mDirectory;
+    private final long mMaxSize;
+
+    // Entry sizes keyed by file name, kept in least-recently-used order
+    private final LinkedHashMap<String, Long> mEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private long mSize;
+    private boolean mInitialized;
+
+    // Counters used to measure how effective the cache is
+    private final AtomicLong mHitCount = new AtomicLong();
+    private final AtomicLong mMissCount = new AtomicLong();
+    private final AtomicLong mRevalidationCount = new AtomicLong();
+    private final AtomicLong mBytesSaved = new AtomicLong();
+
+    /**
+     * A cached response
+     */
+    public static class Entry {
+
+        private final String mUrl;
+        private final long mExpiresAt;
+        private final String mETag;
+        private final String mLastModified;
+        private final byte[] mBody;
+
+        public Entry(String url, long expiresAt, String eTag, String lastModified, byte[] body) {
+            mUrl = url;
+            mExpiresAt = expiresAt;
+            mETag = eTag;
+            mLastModified = lastModified;
+            mBody = body;
+        }
+
+        public String getUrl() {
+            return mUrl;
+        }
+
+        public String getETag() {
+            return mETag;
+        }
+
+        public String getLastModified() {
+            return mLastModified;
+        }
+
+        public byte[] getBody() {
+            return mBody;
+        }
+
+        /**
+         * @param now the current time in milliseconds
+         * @return true if the entry can be used without revalidating it with the server
+         */
+        public boolean isFresh(long now) {
+            return now < mExpiresAt;
+        }
+
+        /**
+         * @param expiresAt the new expiry time in milliseconds
+         * @return a copy of this entry with the given expiry time
+         */
+        public Entry withExpiry(long expiresAt) {
+            return new Entry(mUrl, expiresAt, mETag, mLastModified, mBody);
+        }
+
+        /**
+         * @param expiresAt the new expiry time in milliseconds
+         * @param eTag the ETag sent with the revalidation, or null to keep the current one
+         * @param lastModified the Last-Modified sent with the revalidation, or null to keep the
+         *                     current one
+         * @return a copy of this entry revalidated with the given expiry time and validators
+         */
+        public Entry revalidated(long expiresAt, String eTag, String lastModified) {
+            return new Entry(mUrl, expiresAt, eTag != null ? eTag : mETag,
+                    lastModified != null ? lastModified : mLastModified, mBody);
+        }
+    }
+
+    /**
+     * Constructor
+     * @param directory the directory the cache should be stored in
+     * @param maxSize the maximum size of the cache in bytes
+     */
+    public DiskResponseCache(File directory, long maxSize) {
+        mDirectory = directory;
+        mMaxSize = maxSize;
+    }
+
+    /**
+     * Looks up the cached response for a URL
+     * @param url the URL of the request
+     * @return the cached response, or null if there is none
+     */
+    public Entry get(String url) {
+        String fileName = fileNameFor(url);
+        synchronized (this) {
+            initialize();
+            if (mEntries.get(fileName) == null) {
+                return null;
+            }
+        }
+
+        File file = new File(mDirectory, fileName);
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != FORMAT_VERSION) {
+                remove(fileName);
+                return null;
+            }
+            String storedUrl = in.readUTF();
+            long expiresAt = in.readLong();
+            String eTag = emptyToNull(in.readUTF());
+            String lastModified = emptyToNull(in.readUTF());
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+
+            // Guard against hash collisions
+            if (!storedUrl.equals(url)) {
+                return null;
+            }
+
+            // Record the access on disk so the LRU order survives a restart
+            file.setLastModified(System.currentTimeMillis());
+            return new Entry(storedUrl, expiresAt, eTag, lastModified, body);
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "Problem reading cached response", e);
+            remove(fileName);
+            return null;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    /**
+     * Stores a response, evicting the least recently used entries if the cache grows too large
+     * @param entry the response to store
+     */
+    public void put(Entry entry) {
+        String fileName = fileNameFor(entry.getUrl());
+        File file = new File(mDirectory, fileName);
+
+        synchronized (this) {
+            initialize();
+        }
+
+        // Each write gets its own temporary file, so concurrent puts of the same URL can't
+        // interleave their bytes
+        File tempFile = null;
+        DataOutputStream out = null;
+        try {
+            tempFile = File.createTempFile(fileName, ".tmp", mDirectory);
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(entry.getUrl());
+            out.writeLong(entry.mExpiresAt);
+            out.writeUTF(entry.getETag() != null ? entry.getETag() : "");
+            out.writeUTF(entry.getLastModified() != null ? entry.getLastModified() : "");
+            out.writeInt(entry.getBody().length);
+            out.write(entry.getBody());
+            out.close();
+            out = null;
+
+            // Swap the new entry in atomically so readers never see a partial file
+            if (!tempFile.renameTo(file)) {
+                throw new IOException("Unable to rename " + tempFile);
+            }
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "Problem writing cached response", e);
+            closeQuietly(out);
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+            return;
+        }
+
+        synchronized (this) {
+            Long previousSize = mEntries.put(fileName, file.length());
+            mSize += file.length() - (previousSize != null ? previousSize : 0);
+            trimToSize();
+        }
+    }
+
+    public long getHitCount() {
+        return mHitCount.get();
+    }
+
+    public long getMissCount() {
+        return mMissCount.get();
+    }
+
+    public long getRevalidationCount() {
+        return mRevalidationCount.get();
+    }
+
+    /**
+     * @return the number of response body bytes served from the cache instead of the network
+     */
+    public long getBytesSaved() {
+        return mBytesSaved.get();
+    }
+
+    void recordHit(int bodyLength) {
+        mHitCount.incrementAndGet();
+        mBytesSaved.addAndGet(bodyLength);
+    }
+
+    void recordRevalidation(int bodyLength) {
+        mRevalidationCount.incrementAndGet();
+        mBytesSaved.addAndGet(bodyLength);
+    }
+
+    void recordMiss() {
+        mMissCount.incrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return "DiskResponseCache[hits=" + getHitCount() + ", misses=" + getMissCount()
+                + ", revalidations=" + getRevalidationCount() + ", bytesSaved=" + getBytesSaved()
+                + ", size=" + mSize + "/" + mMaxSize + "]";
+    }
+
+    /**
+     * Builds the in-memory index from the files already on disk, oldest access first. Must be
+     * called while holding the lock.
+     */
+    private void initialize() {
+        if (mInitialized) {
+            return;
+        }
+        mInitialized = true;
+
+        if (!mDirectory.exists() && !mDirectory.mkdirs()) {
+            Log.e(LOG_TAG, "Unable to create cache directory " + mDirectory);
+            return;
+        }
+
+        File[] files = mDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File lhs, File rhs) {
+                long lhsModified = lhs.lastModified();
+                long rhsModified = rhs.lastModified();
+                return lhsModified < rhsModified ? -1 : (lhsModified == rhsModified ? 0 : 1);
+            }
+        });
+        for (File file : files) {
+            if (file.getName().endsWith(ENTRY_SUFFIX)) {
+                mEntries.put(file.getName(), file.length());
+                mSize += file.length();
+            } else {
+                // Left over from an interrupted write
+                file.delete();
+            }
+        }
+        trimToSize();
+    }
+
+    /**
+     * Evicts the least recently used entries until the cache fits in its maximum size. Must be
+     * called while holding the lock.
+     */
+    private void trimToSize() {
+        Iterator<Map.Entry<String, Long>> iterator = mEntries.entrySet().iterator();
+        while (mSize > mMaxSize && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            new File(mDirectory, eldest.getKey()).delete();
+            mSize -= eldest.getValue();
+            iterator.remove();
+        }
+    }
+
+    private synchronized void remove(String fileName) {
+        Long size = mEntries.remove(fileName);
+        if (size != null) {
+            mSize -= size;
+        }
+        new File(mDirectory, fileName).delete();
+    }
+
+    /**
+     * @param url a request URL
+     * @return the name of the file used to store the response for the URL
+     */
+    private static String fileNameFor(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            byte[] hash = digest.digest(url.getBytes(Charset.forName("UTF-8")));
+            StringBuilder name = new StringBuilder(hash.length * 2 + ENTRY_SUFFIX.length());
+            for (byte b : hash) {
+                name.append(Character.forDigit((b >> 4) & 0xf, 16));
+                name.append(Character.forDigit(b & 0xf, 16));
+            }
+            return name.append(ENTRY_SUFFIX).toString();
+        } catch (NoSuchAlgorithmException e) {
+            // MD5 is always available on Android
+            throw new AssertionError(e);
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+                // Nothing useful can be done here
+            }
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.android.popularmovies;
+
+import android.content.Context;
+import android.support.v7.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Adapter used to populate the details screen of {@link DetailFragment}: the Movie's details as a
+ * header, followed by its trailers and its reviews. Only the rows on screen have views, reviews
+ * are shown collapsed to an excerpt until the user expands them, and binding the end of the loaded
+ * reviews asks for the next page.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class ExtrasAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+    private static final int TYPE_HEADER = 0;
+    private static final int TYPE_SECTION = 1;
+    private static final int TYPE_TRAILER = 2;
+    private static final int TYPE_NO_TRAILERS = 3;
+    private static final int TYPE_REVIEW = 4;
+    private static final int TYPE_NO_REVIEWS = 5;
+    private static final int TYPE_LOADING = 6;
+
+    private final Context mContext;
+    private final Listener mListener;
+
+    // The rows of the list, rebuilt whenever the extras change
+    private final List<Row> mRows = new ArrayList<>();
+    private List<Trailer> mTrailers = new ArrayList<>();
+    private final List<Review> mReviews = new ArrayList<>();
+    private boolean mExtrasLoaded;
+    private boolean mHasMoreReviews;
+    // The reviews the user expanded
+    private final Set<Review> mExpandedReviews = new HashSet<>();
+
+    /**
+     * Listener for the parts of the list the fragment takes care of
+     */
+    public interface Listener {
+        /**
+         * Called to populate the header with the Movie's details
+         * @param headerView the header, inflated from detail_header_layout
+         */
+        void onBindHeader(View headerView);
+
+        void onTrailerClick(Trailer trailer);
+
+        /**
+         * Called when the end of the loaded reviews is shown and more pages are available
+         */
+        void onLoadMoreReviews();
+    }
+
+    // Constructor
+    public ExtrasAdapter(Context context, Listener listener) {
+        mContext = context;
+        mListener = listener;
+        rebuildRows();
+    }
+
+    /**
+     * Shows the trailers and the first page of reviews below the header
+     * @param extras the Movie's extras
+     */
+    public void setExtras(MovieExtras extras) {
+        int oldCount = mRows.size();
+        mTrailers = extras.getTrailers();
+        mReviews.clear();
+        mReviews.addAll(extras.getReviews());
+        mExpandedReviews.clear();
+        mHasMoreReviews = extras.getReviewTotalPages() > 1;
+        mExtrasLoaded = true;
+        rebuildRows();
+
+        // The header is left alone
+        notifyItemRangeRemoved(1, oldCount - 1);
+        notifyItemRangeInserted(1, mRows.size() - 1);
+    }
+
+    /**
+     * Appends a further page of reviews
+     * @param page the page that was loaded
+     */
+    public void addReviewPage(ReviewPage page) {
+        int insertAt = mRows.size() - (mHasMoreReviews ? 1 : 0);
+        boolean hadMore = mHasMoreReviews;
+        mReviews.addAll(page.getReviews());
+        mHasMoreReviews = page.hasNextPage();
+        rebuildRows();
+
+        if (hadMore && !mHasMoreReviews) {
+            notifyItemRemoved(insertAt);
+        }
+        notifyItemRangeInserted(insertAt, page.getReviews().size());
+    }
+
+    /**
+     * Stops asking for further review pages, such as after one failed to load
+     */
+    public void stopLoadingReviews() {
+        if (mHasMoreReviews) {
+            mHasMoreReviews = false;
+            rebuildRows();
+            notifyItemRemoved(mRows.size());
+        }
+    }
+
+    private void rebuildRows() {
+        mRows.clear();
+        mRows.add(new Row(TYPE_HEADER, null));
+        if (!mExtrasLoaded) {
+            return;
+        }
+
+        mRows.add(new Row(TYPE_SECTION, R.string.trailers));
+        if (mTrailers.isEmpty()) {
+            mRows.add(new Row(TYPE_NO_TRAILERS, null));
+        }
+        for (Trailer trailer : mTrailers) {
+            mRows.add(new Row(TYPE_TRAILER, trailer));
+        }
+
+        mRows.add(new Row(TYPE_SECTION, R.string.reviews));
+        if (mReviews.isEmpty()) {
+            mRows.add(new Row(TYPE_NO_REVIEWS, null));
+        }
+        for (Review review : mReviews) {
+            mRows.add(new Row(TYPE_REVIEW, review));
+        }
+        if (mHasMoreReviews) {
+            mRows.add(new Row(TYPE_LOADING, null));
+        }
+    }
+
+    @Override
+    public int getItemCount() {
+        return mRows.size();
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return mRows.get(position).mType;
+    }
+
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        LayoutInflater inflater = LayoutInflater.from(mContext);
+        switch (viewType) {
+            case TYPE_HEADER:
+                return new StaticHolder(
+                        inflater.inflate(R.layout.detail_header_layout, parent, false));
+            case TYPE_SECTION:
+                return new StaticHolder(
+                        inflater.inflate(R.layout.extras_section_layout, parent, false));
+            case TYPE_TRAILER:
+                return new TrailerHolder(
+                        inflater.inflate(R.layout.trailer_item_layout, parent, false));
+            case TYPE_NO_TRAILERS:
+                return new StaticHolder(
+                        inflater.inflate(R.layout.trailer_no_items_layout, parent, false));
+            case TYPE_REVIEW:
+                return new ReviewHolder(
+                        inflater.inflate(R.layout.review_item_layout, parent, false));
+            case TYPE_NO_REVIEWS:
+                return new StaticHolder(
+                        inflater.inflate(R.layout.reviews_no_items_layout, parent, false));
+            default:
+                return new StaticHolder(
+                        inflater.inflate(R.layout.extras_loading_layout, parent, false));
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+        Row row = mRows.get(position);
+        switch (row.mType) {
+            case TYPE_HEADER:
+                mListener.onBindHeader(holder.itemView);
+                break;
+            case TYPE_SECTION:
+                ((TextView) holder.itemView.findViewById(R.id.section_title_textview))
+                        .setText((Integer) row.mItem);
+                break;
+            case TYPE_TRAILER:
+                ((TrailerHolder) holder).mNameView.setText(((Trailer) row.mItem).getName());
+                break;
+            case TYPE_REVIEW:
+                ((ReviewHolder) holder).bind((Review) row.mItem);
+                break;
+            case TYPE_LOADING:
+                // The user has reached the end of the loaded reviews
+                mListener.onLoadMoreReviews();
+                break;
+        }
+    }
+
+    /**
+     * A row of the list: its view type, and the item it shows if any
+     */
+    private static final class Row {
+        final int mType;
+        final Object mItem;
+
+        Row(int type, Object item) {
+            mType = type;
+            mItem = item;
+        }
+    }
+
+    /**
+     * Holds a view that needs no binding, or whose binding is done without a holder
+     */
+    private static final class StaticHolder extends RecyclerView.ViewHolder {
+        StaticHolder(View itemView) {
+            super(itemView);
+        }
+    }
+
+    /**
+     * Holds the views of a trailer, which opens the video when clicked
+     */
+    private final class TrailerHolder extends RecyclerView.ViewHolder
+            implements View.OnClickListener {
+
+        final TextView mNameView;
+
+        TrailerHolder(View itemView) {
+            super(itemView);
+            mNameView = (TextView) itemView.findViewById(R.id.trailer_name_textview);
+            itemView.setOnClickListener(this);
+        }
+
+        @Override
+        public void onClick(View v) {
+            int position = getAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) {
+                mListener.onTrailerClick((Trailer) mRows.get(position).mItem);
+            }
+        }
+    }
+
+    /**
+     * Holds the views of a review, which expands or collapses when clicked
+     */
+    private final class ReviewHolder extends RecyclerView.ViewHolder
+            implements View.OnClickListener {
+
+        final TextView mAuthorView;
+        final PrecomputedTextView mContentView;
+        final TextView mExpandView;
+
+        ReviewHolder(View itemView) {
+            super(itemView);
+            mAuthorView = (TextView) itemView.findViewById(R.id.author_textview);
+            mContentView = (PrecomputedTextView) itemView.findViewById(R.id.content_textview);
+            mExpandView = (TextView) itemView.findViewById(R.id.expand_textview);
+            itemView.setOnClickListener(this);
+        }
+
+        void bind(Review review) {
+            mAuthorView.setText(review.getAuthor());
+            if (!review.isLong()) {
+                mContentView.setText(review.getContent());
+                mExpandView.setVisibility(View.GONE);
+                return;
+            }
+            // The full text is only set, and laid out, once the user asks for it
+            boolean expanded = mExpandedReviews.contains(review);
+            mContentView.setText(expanded ? review.getContent() : review.getExcerpt());
+            mExpandView.setText(expanded ? R.string.review_show_less : R.string.review_read_more);
+            mExpandView.setVisibility(View.VISIBLE);
+        }
+
+        @Override
+        public void onClick(View v) {
+            int position = getAdapterPosition();
+            if (position == RecyclerView.NO_POSITION) {
+                return;
+            }
+            Review review = (Review) mRows.get(position).mItem;
+            if (!review.isLong()) {
+                return;
+            }
+            if (!mExpandedReviews.remove(review)) {
+                mExpandedReviews.add(review);
+            }
+            notifyItemChanged(position);
+        }
+    }
+}
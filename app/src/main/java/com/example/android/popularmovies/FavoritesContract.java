@@ -0,0 +1,41 @@
+package com.example.android.popularmovies;
+
+import android.provider.BaseColumns;
+
+/**
+ * Defines the table and column names for the favorites database.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class FavoritesContract {
+
+    /**
+     * A private constructor is used because a {@link FavoritesContract} object should never be created.
+     */
+    private FavoritesContract() {
+    }
+
+    /**
+     * Inner class that defines the table contents of the favorites table. Each row holds the full
+     * {@link Movie} so that the Favorites can be displayed without any network requests.
+     */
+    public static final class FavoriteEntry implements BaseColumns {
+
+        public static final String TABLE_NAME = "favorites";
+
+        // TheMovieDB ID of the movie, unique within the table
+        public static final String COLUMN_MOVIE_ID = "movie_id";
+        public static final String COLUMN_TITLE = "title";
+        // The poster path, such as "/abc.jpg"
+        public static final String COLUMN_POSTER_PATH = "poster_path";
+        public static final String COLUMN_SYNOPSIS = "synopsis";
+        public static final String COLUMN_RELEASE_DATE = "release_date";
+        public static final String COLUMN_RATING = "rating";
+        // When the movie was favorited, in milliseconds, used to order the Favorites
+        public static final String COLUMN_ADDED_AT = "added_at";
+
+        public static final String INDEX_ADDED_AT = "favorites_added_at_index";
+    }
+}
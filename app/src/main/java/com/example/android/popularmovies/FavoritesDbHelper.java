@@ -0,0 +1,55 @@
+package com.example.android.popularmovies;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import com.example.android.popularmovies.FavoritesContract.FavoriteEntry;
+
+/**
+ * Manages the local database holding the Favorites.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class FavoritesDbHelper extends SQLiteOpenHelper {
+
+    // If you change the database schema, you must increment the database version.
+    private static final int DATABASE_VERSION = 1;
+
+    static final String DATABASE_NAME = "favorites.db";
+
+    public FavoritesDbHelper(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase sqLiteDatabase) {
+        final String SQL_CREATE_FAVORITES_TABLE = "CREATE TABLE " + FavoriteEntry.TABLE_NAME + " ("
+                + FavoriteEntry._ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + FavoriteEntry.COLUMN_MOVIE_ID + " TEXT UNIQUE NOT NULL, "
+                + FavoriteEntry.COLUMN_TITLE + " TEXT, "
+                + FavoriteEntry.COLUMN_POSTER_PATH + " TEXT, "
+                + FavoriteEntry.COLUMN_SYNOPSIS + " TEXT, "
+                + FavoriteEntry.COLUMN_RELEASE_DATE + " TEXT, "
+                + FavoriteEntry.COLUMN_RATING + " REAL NOT NULL, "
+                + FavoriteEntry.COLUMN_ADDED_AT + " INTEGER NOT NULL);";
+
+        // Index the column the Favorites are ordered by so the favorites grid is a single
+        // index scan
+        final String SQL_CREATE_ADDED_AT_INDEX = "CREATE INDEX " + FavoriteEntry.INDEX_ADDED_AT
+                + " ON " + FavoriteEntry.TABLE_NAME + " (" + FavoriteEntry.COLUMN_ADDED_AT + ");";
+
+        sqLiteDatabase.execSQL(SQL_CREATE_FAVORITES_TABLE);
+        sqLiteDatabase.execSQL(SQL_CREATE_ADDED_AT_INDEX);
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase sqLiteDatabase, int oldVersion, int newVersion) {
+        // Which movies are Favorites is kept by the FavoritesIndex, so the full movie records
+        // can simply be fetched again after an upgrade
+        sqLiteDatabase.execSQL("DROP TABLE IF EXISTS " + FavoriteEntry.TABLE_NAME);
+        onCreate(sqLiteDatabase);
+    }
+}
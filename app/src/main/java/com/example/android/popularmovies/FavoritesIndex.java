@@ -0,0 +1,221 @@
+package com.example.android.popularmovies;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.preference.PreferenceManager;
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-memory index of the Favorites' movie IDs. Membership checks are lock-free reads of a
+ * concurrent set, so they are safe to make on the main thread. Changes are applied in memory
+ * immediately and written behind, on a background thread, to an append-only journal of
+ * additions and removals which is periodically compacted down to just the current Favorites.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class FavoritesIndex {
+
+    private static final String LOG_TAG = FavoritesIndex.class.getSimpleName();
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final String JOURNAL_FILE = "favorites.journal";
+    private static final char OP_ADD = '+';
+    private static final char OP_REMOVE = '-';
+
+    // Compact once the journal holds this many more entries than there are Favorites
+    private static final int COMPACTION_THRESHOLD = 64;
+
+    private static FavoritesIndex sInstance;
+
+    private final Context mContext;
+    private final File mJournal;
+    private final Set<String> mFavorites =
+            Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    // All journal I/O happens in order on this single thread
+    private final ExecutorService mWriter = Executors.newSingleThreadExecutor();
+    private int mJournalEntries;
+
+    /**
+     * @param context any context, only its application context is kept
+     * @return the single {@link FavoritesIndex} for the process, which is loaded the first time
+     * it is requested
+     */
+    public static synchronized FavoritesIndex getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new FavoritesIndex(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    private FavoritesIndex(Context context) {
+        mContext = context;
+        mJournal = new File(context.getFilesDir(), JOURNAL_FILE);
+        load();
+    }
+
+    /**
+     * @param movieId the ID of a Movie
+     * @return true if the Movie is a Favorite
+     */
+    public boolean contains(String movieId) {
+        return mFavorites.contains(movieId);
+    }
+
+    /**
+     * @return a snapshot of the Favorites' movie IDs
+     */
+    public Set<String> getFavorites() {
+        return new HashSet<>(mFavorites);
+    }
+
+    /**
+     * Adds a Movie to the Favorites
+     * @param movieId the ID of the Movie
+     */
+    public void add(String movieId) {
+        if (mFavorites.add(movieId)) {
+            writeBehind(OP_ADD, movieId);
+        }
+    }
+
+    /**
+     * Removes a Movie from the Favorites
+     * @param movieId the ID of the Movie
+     */
+    public void remove(String movieId) {
+        if (mFavorites.remove(movieId)) {
+            writeBehind(OP_REMOVE, movieId);
+        }
+    }
+
+    /**
+     * Replays the journal into memory, or migrates the Favorites out of SharedPreferences if
+     * there is no journal yet. Runs on the calling thread, which is the main thread when the
+     * index is created by {@link PopularMoviesApplication}, so reads never have to wait for it.
+     * Both sources hold little more than a line per Favorite. Writing the first journal is left
+     * to the writer thread.
+     */
+    private void load() {
+        if (mJournal.exists()) {
+            replayJournal();
+        } else {
+            SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(mContext);
+            mFavorites.addAll(preferences.getStringSet(
+                    mContext.getString(R.string.pref_fav_key), new HashSet<String>()));
+            mWriter.execute(new Runnable() {
+                @Override
+                public void run() {
+                    compact();
+                }
+            });
+        }
+    }
+
+    private void replayJournal() {
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(mJournal), UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Skip anything malformed, such as a line cut short by a crash mid-write
+                if (line.length() < 2) {
+                    continue;
+                }
+                if (line.charAt(0) == OP_ADD) {
+                    mFavorites.add(line.substring(1));
+                } else if (line.charAt(0) == OP_REMOVE) {
+                    mFavorites.remove(line.substring(1));
+                }
+                mJournalEntries++;
+            }
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "Problem reading the favorites journal", e);
+        } finally {
+            closeQuietly(reader);
+        }
+    }
+
+    /**
+     * Queues a journal entry to be appended on the writer thread
+     */
+    private void writeBehind(final char op, final String movieId) {
+        mWriter.execute(new Runnable() {
+            @Override
+            public void run() {
+                Writer writer = null;
+                try {
+                    writer = new OutputStreamWriter(new FileOutputStream(mJournal, true), UTF_8);
+                    writer.write(op + movieId + "\n");
+                    writer.close();
+                    writer = null;
+                    mJournalEntries++;
+                } catch (IOException e) {
+                    Log.e(LOG_TAG, "Problem writing the favorites journal", e);
+                } finally {
+                    closeQuietly(writer);
+                }
+
+                if (mJournalEntries > mFavorites.size() + COMPACTION_THRESHOLD) {
+                    compact();
+                }
+            }
+        });
+    }
+
+    /**
+     * Rewrites the journal as a single addition per current Favorite. Runs on the writer thread.
+     */
+    private void compact() {
+        File tempFile = new File(mJournal.getPath() + ".tmp");
+        Writer writer = null;
+        try {
+            Set<String> favorites = new HashSet<>(mFavorites);
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempFile), UTF_8));
+            for (String movieId : favorites) {
+                writer.write(OP_ADD + movieId + "\n");
+            }
+            writer.close();
+            writer = null;
+            if (!tempFile.renameTo(mJournal)) {
+                throw new IOException("Unable to rename " + tempFile);
+            }
+            mJournalEntries = favorites.size();
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "Problem compacting the favorites journal", e);
+            tempFile.delete();
+        } finally {
+            closeQuietly(writer);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+                // Nothing useful can be done here
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.android.popularmovies;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.example.android.popularmovies.FavoritesContract.FavoriteEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data access object for the full {@link Movie} records of the Favorites, stored in the local
+ * database so that the favorites grid can be shown without any network requests.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class FavoritesStore {
+
+    private static final String[] MOVIE_COLUMNS = {
+            FavoriteEntry.COLUMN_MOVIE_ID,
+            FavoriteEntry.COLUMN_TITLE,
+            FavoriteEntry.COLUMN_POSTER_PATH,
+            FavoriteEntry.COLUMN_SYNOPSIS,
+            FavoriteEntry.COLUMN_RELEASE_DATE,
+            FavoriteEntry.COLUMN_RATING
+    };
+
+    // These indices are tied to MOVIE_COLUMNS. If MOVIE_COLUMNS changes, these must change.
+    private static final int COL_MOVIE_ID = 0;
+    private static final int COL_TITLE = 1;
+    private static final int COL_POSTER_PATH = 2;
+    private static final int COL_SYNOPSIS = 3;
+    private static final int COL_RELEASE_DATE = 4;
+    private static final int COL_RATING = 5;
+
+    private static FavoritesStore sInstance;
+
+    private final FavoritesDbHelper mDbHelper;
+
+    /**
+     * @param context any context, only its application context is kept
+     * @return the single {@link FavoritesStore} for the process
+     */
+    public static synchronized FavoritesStore getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new FavoritesStore(new FavoritesDbHelper(context.getApplicationContext()));
+        }
+        return sInstance;
+    }
+
+    private FavoritesStore(FavoritesDbHelper dbHelper) {
+        mDbHelper = dbHelper;
+    }
+
+    /**
+     * @return every stored Favorite, in the order they were added
+     */
+    public List<Movie> getFavorites() {
+        SQLiteDatabase db = mDbHelper.getReadableDatabase();
+        Cursor cursor = db.query(FavoriteEntry.TABLE_NAME, MOVIE_COLUMNS, null, null, null, null,
+                FavoriteEntry.COLUMN_ADDED_AT + " ASC");
+        List<Movie> movies = new ArrayList<>(cursor.getCount());
+        try {
+            while (cursor.moveToNext()) {
+                movies.add(MovieCache.intern(movieFromCursor(cursor)));
+            }
+        } finally {
+            cursor.close();
+        }
+        SearchIndex.addAll(movies);
+        return movies;
+    }
+
+    /**
+     * @param movieId the ID of a Movie
+     * @return the stored Favorite with the given ID, or null if it isn't stored
+     */
+    public Movie getFavorite(String movieId) {
+        SQLiteDatabase db = mDbHelper.getReadableDatabase();
+        Cursor cursor = db.query(FavoriteEntry.TABLE_NAME, MOVIE_COLUMNS,
+                FavoriteEntry.COLUMN_MOVIE_ID + " = ?", new String[]{movieId}, null, null, null);
+        try {
+            return cursor.moveToFirst() ? MovieCache.intern(movieFromCursor(cursor)) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Stores a Favorite, or refreshes its details if it is already stored. Refreshing keeps the
+     * Favorite's original position in the list.
+     * @param movie the Movie to store
+     */
+    public void saveFavorite(Movie movie) {
+        ContentValues values = new ContentValues();
+        values.put(FavoriteEntry.COLUMN_MOVIE_ID, movie.getMovieId());
+        values.put(FavoriteEntry.COLUMN_TITLE, movie.getTitle());
+        values.put(FavoriteEntry.COLUMN_POSTER_PATH, movie.getPosterPath());
+        values.put(FavoriteEntry.COLUMN_SYNOPSIS, movie.getSynopsis());
+        values.put(FavoriteEntry.COLUMN_RELEASE_DATE, movie.getReleaseDate());
+        values.put(FavoriteEntry.COLUMN_RATING, movie.getRating());
+
+        SQLiteDatabase db = mDbHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            int updated = db.update(FavoriteEntry.TABLE_NAME, values,
+                    FavoriteEntry.COLUMN_MOVIE_ID + " = ?", new String[]{movie.getMovieId()});
+            if (updated == 0) {
+                values.put(FavoriteEntry.COLUMN_ADDED_AT, System.currentTimeMillis());
+                db.insert(FavoriteEntry.TABLE_NAME, null, values);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Removes a Favorite
+     * @param movieId the ID of the Movie to remove
+     */
+    public void removeFavorite(String movieId) {
+        mDbHelper.getWritableDatabase().delete(FavoriteEntry.TABLE_NAME,
+                FavoriteEntry.COLUMN_MOVIE_ID + " = ?", new String[]{movieId});
+    }
+
+    private static Movie movieFromCursor(Cursor cursor) {
+        return new Movie(
+                cursor.getString(COL_MOVIE_ID),
+                cursor.getString(COL_TITLE),
+                cursor.getString(COL_POSTER_PATH),
+                cursor.getString(COL_SYNOPSIS),
+                cursor.getString(COL_RELEASE_DATE),
+                cursor.getDouble(COL_RATING));
+    }
+}
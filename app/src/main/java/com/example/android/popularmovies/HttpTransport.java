@@ -0,0 +1,25 @@
+package com.example.android.popularmovies;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Map;
+
+/**
+ * Abstraction over the HTTP client used by {@link QueryUtils} to talk to TheMovieDB API, allowing
+ * the underlying connection handling to be swapped out at runtime.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public interface HttpTransport {
+
+    /**
+     * Perform a GET request against the given URL
+     * @param url the URL to request
+     * @param requestHeaders any additional headers to send along with the request
+     * @return the {@link TransportResponse}, which must be closed by the caller once read
+     * @throws IOException if the request could not be completed
+     */
+    TransportResponse execute(URL url, Map<String, String> requestHeaders) throws IOException;
+}
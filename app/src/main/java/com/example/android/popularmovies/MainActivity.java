@@ -3,7 +3,9 @@ package com.example.android.popularmovies;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.support.v4.app.FragmentTransaction;
+import android.support.v4.view.MenuItemCompat;
 import android.support.v7.app.AppCompatActivity;
+import android.support.v7.widget.SearchView;
 import android.os.Bundle;
 import android.view.Menu;
 import android.view.MenuItem;
@@ -54,6 +56,47 @@ public class MainActivity extends AppCompatActivity implements
     public boolean onCreateOptionsMenu(Menu menu) {
         // Create the options menu
         getMenuInflater().inflate(R.menu.main, menu);
+
+        // Search the Movies seen so far as the user types, and The Movie DB only if nothing
+        // matches locally once the search is submitted
+        MenuItem searchItem = menu.findItem(R.id.action_search);
+        SearchView searchView = (SearchView) MenuItemCompat.getActionView(searchItem);
+        searchView.setQueryHint(getString(R.string.search_hint));
+        searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                MainFragment mainFragment = getMainFragment();
+                if (mainFragment != null) {
+                    mainFragment.submitSearch(query);
+                }
+                return true;
+            }
+
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                MainFragment mainFragment = getMainFragment();
+                if (mainFragment != null) {
+                    mainFragment.search(newText);
+                }
+                return true;
+            }
+        });
+        MenuItemCompat.setOnActionExpandListener(searchItem,
+                new MenuItemCompat.OnActionExpandListener() {
+                    @Override
+                    public boolean onMenuItemActionExpand(MenuItem item) {
+                        return true;
+                    }
+
+                    @Override
+                    public boolean onMenuItemActionCollapse(MenuItem item) {
+                        MainFragment mainFragment = getMainFragment();
+                        if (mainFragment != null) {
+                            mainFragment.endSearch();
+                        }
+                        return true;
+                    }
+                });
         return true;
     }
 
@@ -73,8 +116,11 @@ public class MainActivity extends AppCompatActivity implements
     protected void onResume() {
         super.onResume();
 
-        // When the app is resumed, reload the information in the MainFragment to take care of sort
-        // order change as well as network connectivity changes
+        // Apply the preferred HTTP transport before any loaders are restarted
+        QueryUtils.useTransport(Utility.getPreferredTransport(this));
+
+        // When the app is resumed, reload the information in the MainFragment if the sort order or
+        // network connectivity changed; otherwise the pages already loaded are kept
         MainFragment mainFragment = (MainFragment)getSupportFragmentManager().findFragmentById(R.id.fragment_main);
         if (mainFragment != null) {
             mainFragment.onSortOrderChanged();
@@ -95,13 +141,17 @@ public class MainActivity extends AppCompatActivity implements
         }
     }
 
+    private MainFragment getMainFragment() {
+        return (MainFragment) getSupportFragmentManager().findFragmentById(R.id.fragment_main);
+    }
+
     @Override
     public void onItemSelected(Movie movie) {
         if (mTwoPane) {
             // In two-pane mode, show the detail view in this activity by adding or replacing
             // the detail fragment using a fragment transaction
             Bundle args = new Bundle();
-            args.putParcelable(DetailFragment.DETAIL_MOVIE, movie);
+            args.putString(DetailFragment.DETAIL_MOVIE_ID, MovieRegistry.register(movie));
 
             DetailFragment fragment = new DetailFragment();
             fragment.setArguments(args);
@@ -112,7 +162,7 @@ public class MainActivity extends AppCompatActivity implements
         } else {
             // Otherwise, create a new intent to open the DetailActivity
             Intent intent = new Intent(this, DetailActivity.class)
-                    .putExtra(DetailFragment.DETAIL_MOVIE, movie);
+                    .putExtra(DetailFragment.DETAIL_MOVIE_ID, MovieRegistry.register(movie));
             startActivity(intent);
         }
     }
@@ -126,7 +176,7 @@ public class MainActivity extends AppCompatActivity implements
         if (mTwoPane) {
             if (Utility.getPreferredSort(this).equals("favorites")) {
                 MainFragment mainFragment = (MainFragment)getSupportFragmentManager().findFragmentById(R.id.fragment_main);
-                mainFragment.onSortOrderChanged();
+                mainFragment.reload();
             }
         }
     }
@@ -5,42 +5,67 @@ import android.content.SharedPreferences;
 import android.net.ConnectivityManager;
 import android.net.NetworkInfo;
 import android.net.Uri;
+import android.os.AsyncTask;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.preference.PreferenceManager;
 import android.support.annotation.Nullable;
 import android.support.v4.app.Fragment;
 import android.support.v4.app.LoaderManager;
 import android.support.v4.content.Loader;
+import android.support.v7.widget.GridLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.AdapterView;
-import android.widget.GridView;
+import android.view.ViewTreeObserver;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Fragment for handling the GridView used to display the Movie results from TheMovieDP API queries.
+ * Fragment for handling the poster grid used to display the Movie results from TheMovieDP API
+ * queries.
  *
  * @author Chase Strackbein
- * @version 1.1
+ * @version 1.2
  * @since 2016-09-29
  */
 
 public class MainFragment extends Fragment implements LoaderManager.LoaderCallbacks<List<Movie>> {
 
     private static final int MOVIE_LOADER_ID = 0;
+    private static final int SEARCH_LOADER_ID = 1;
+    private static final String ARG_QUERY = "query";
+
+    // The most search results to show
+    private static final int MAX_SEARCH_RESULTS = 50;
     private static final String LOG_TAG = MainActivity.class.getSimpleName();
 
+    // Start loading the next (or previous) page once the user scrolls this close to the end
+    // (or start) of the loaded movies
+    private static final int PREFETCH_DISTANCE = 10;
+
     private MovieAdapter mMovieAdapter;
-    private GridView mGridView;
+    private RecyclerView mRecyclerView;
+    private GridLayoutManager mLayoutManager;
+    private PosterPrefetcher mPosterPrefetcher;
     private NetworkInfo mNetworkInfo;
     private ConnectivityManager mConnMgr;
 
-    private int mPosition = GridView.INVALID_POSITION;
+    private int mPosition = RecyclerView.NO_POSITION;
+
+    // The Movies last written to (or painted from) the grid snapshot
+    private List<Movie> mSnapshot;
+
+    // The current search, or null when the grid shows the MovieLoader's results. While searching,
+    // the MovieLoader's latest results are kept aside to be shown again when the search ends.
+    private String mSearchQuery;
+    private List<Movie> mLoaderMovies = new ArrayList<>();
 
     private static final String SELECTED_KEY = "selected_position";
 
@@ -64,10 +89,27 @@ public class MainFragment extends Fragment implements LoaderManager.LoaderCallba
     }
 
     /*
-     * Method to handle when the sort order has changed.
+     * Method to handle when the sort order may have changed, such as when the app is resumed.
+     * The loader, and the pages it has loaded, are only replaced when the sort order or the
+     * network connection actually changed since it was created. Favorites, which have no pages
+     * and may have been changed on the details screen, are always reloaded.
      */
     void onSortOrderChanged() {
-        // Restart the loader
+        MovieLoader loader = getMovieLoader();
+        NetworkInfo networkInfo = mConnMgr != null ? mConnMgr.getActiveNetworkInfo() : null;
+        boolean online = networkInfo != null && networkInfo.isConnected();
+        if (loader != null && (loader.getListKey() == null || loader.isOnline() != online
+                || !Utility.getPreferredSort(getActivity()).equals(loader.getSortOrder()))) {
+            reload();
+        } else {
+            getLoaderManager().initLoader(MOVIE_LOADER_ID, null, this);
+        }
+    }
+
+    /*
+     * Reloads the grid from scratch, such as after a Favorite was removed.
+     */
+    void reload() {
         getLoaderManager().restartLoader(MOVIE_LOADER_ID, null, this);
     }
 
@@ -76,35 +118,72 @@ public class MainFragment extends Fragment implements LoaderManager.LoaderCallba
     public View onCreateView(LayoutInflater inflater, @Nullable ViewGroup container,
                              @Nullable Bundle savedInstanceState) {
 
-        // The MovieAdapter will take data from out List of Movie objects and populate the GridView.
-        mMovieAdapter = new MovieAdapter(getActivity(), new ArrayList<Movie>());
+        // The MovieAdapter will take data from out List of Movie objects and populate the grid.
+        // Alert our MainActivity when a Movie has been selected.
+        mMovieAdapter = new MovieAdapter(getActivity(), new MovieAdapter.OnMovieClickListener() {
+            @Override
+            public void onMovieClick(Movie movie, int position) {
+                mPosition = position;
+                ((Callback) getActivity()).onItemSelected(movie);
+            }
+        });
 
         View rootView = inflater.inflate(R.layout.fragment_main, container, false);
 
-        // Get a reference to the GridView, and attach this adapter to it.
-        mGridView = (GridView) rootView.findViewById(R.id.gridview);
-        mGridView.setAdapter(mMovieAdapter);
+        // Get a reference to the RecyclerView, and attach this adapter to it
+        mRecyclerView = (RecyclerView) rootView.findViewById(R.id.gridview);
+        mLayoutManager = new GridLayoutManager(getActivity(), 1);
+        mRecyclerView.setLayoutManager(mLayoutManager);
+        mRecyclerView.setHasFixedSize(true);
+        mRecyclerView.setAdapter(mMovieAdapter);
 
-        // Attach an OnItemClickListener to the GridView to alert our MainActivity when
-        // a Movie has been selected
-        mGridView.setOnItemClickListener(new AdapterView.OnItemClickListener() {
+        // Fit as many poster columns as the width allows
+        final int columnWidth = getResources().getDimensionPixelSize(R.dimen.poster_column_width);
+        mRecyclerView.addOnLayoutChangeListener(new View.OnLayoutChangeListener() {
             @Override
-            public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
-                Movie movie = (Movie) parent.getItemAtPosition(position);
-                mPosition = position;
-                if (movie != null) {
-                    ((Callback) getActivity()).onItemSelected(movie);
+            public void onLayoutChange(View v, int left, int top, int right, int bottom,
+                                       int oldLeft, int oldTop, int oldRight, int oldBottom) {
+                int width = right - left - v.getPaddingLeft() - v.getPaddingRight();
+                int spanCount = Math.max(1, width / columnWidth);
+                if (spanCount != mLayoutManager.getSpanCount()) {
+                    mLayoutManager.setSpanCount(spanCount);
                 }
+                // Download and decode posters at the size the columns actually are
+                mMovieAdapter.setColumnWidth(width / spanCount);
             }
         });
 
+        // Load further pages as the user nears either end of the loaded movies
+        mRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                MovieLoader loader = getMovieLoader();
+                int totalItemCount = mMovieAdapter.getItemCount();
+                if (loader == null || totalItemCount == 0 || mSearchQuery != null) {
+                    return;
+                }
+                int firstVisibleItem = mLayoutManager.findFirstVisibleItemPosition();
+                int lastVisibleItem = mLayoutManager.findLastVisibleItemPosition();
+                if (lastVisibleItem >= totalItemCount - 1 - PREFETCH_DISTANCE) {
+                    loader.loadNextPage();
+                } else if (firstVisibleItem <= PREFETCH_DISTANCE) {
+                    loader.loadPreviousPage();
+                }
+            }
+        });
+
+        // Warm the poster cache for the rows the user is scrolling towards
+        mPosterPrefetcher = new PosterPrefetcher(mMovieAdapter, mLayoutManager);
+        mMovieAdapter.setPosterPrefetcher(mPosterPrefetcher);
+        mRecyclerView.addOnScrollListener(mPosterPrefetcher);
+
         // If there's an instance state, mine it for the useful information.
         // The end-goal here is that the user never knows that turning their device sideways
         // does crazy lifecycle-related things. It should feel like some stuff stretched out,
         // or magically appeared to take advantage of room, but data or place in the app was never
         // actually lost
         if (savedInstanceState != null && savedInstanceState.containsKey(SELECTED_KEY)) {
-            // The GridView probably hasn't even been populated yet. Actually perform the
+            // The grid probably hasn't even been populated yet. Actually perform the
             // swapout in onLoadFinished
             mPosition = savedInstanceState.getInt(SELECTED_KEY);
         }
@@ -113,6 +192,11 @@ public class MainFragment extends Fragment implements LoaderManager.LoaderCallba
         mConnMgr = (ConnectivityManager) getActivity().getSystemService(
                 Context.CONNECTIVITY_SERVICE);
 
+        // On a cold start, paint the last grid straight away rather than waiting on the loader.
+        // After a configuration change the loader hands back what it already has instead.
+        if (savedInstanceState == null) {
+            paintSnapshot();
+        }
 
         return rootView;
     }
@@ -123,28 +207,160 @@ public class MainFragment extends Fragment implements LoaderManager.LoaderCallba
 
     }
 
+    @Override
+    public void onDestroyView() {
+        // Posters for a grid that is gone are no longer worth fetching
+        if (mPosterPrefetcher != null) {
+            mPosterPrefetcher.cancelAll();
+        }
+        super.onDestroyView();
+    }
+
     /**
-     * Updates the GridView
-     * @param movies a List of Movies to populate the GridView with
+     * @return the key of the persisted list for the preferred sort order, or null for Favorites
      */
-    private void updateUi(final List<Movie> movies) {
+    private String getPreferredListKey() {
+        String orderBy = Utility.getPreferredSort(getActivity());
+        if (orderBy.equals(getString(R.string.pref_sort_by_default))) {
+            return MovieRepository.LIST_POPULAR;
+        } else if (orderBy.equals("top rated")) {
+            return MovieRepository.LIST_TOP_RATED;
+        }
+        return null;
+    }
+
+    /**
+     * Fills the grid from the snapshot of the preferred list, if there is one, and logs how
+     * long it took until the first posters were laid out.
+     */
+    private void paintSnapshot() {
+        String listKey = getPreferredListKey();
+        if (listKey == null) {
+            return;
+        }
+
+        final long start = SystemClock.elapsedRealtime();
+        List<Movie> snapshot = MovieSnapshot.read(MovieSnapshot.fileFor(getActivity(), listKey));
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        mSnapshot = snapshot;
+        mMovieAdapter.setMovies(snapshot);
+        if (!Log.isLoggable(LOG_TAG, Log.DEBUG)) {
+            return;
+        }
+        Log.d(LOG_TAG, "Snapshot of " + snapshot.size() + " movies read in "
+                + (SystemClock.elapsedRealtime() - start) + " ms");
+
+        // Time to first poster: until the grid is about to draw its first cells
+        mRecyclerView.getViewTreeObserver().addOnPreDrawListener(
+                new ViewTreeObserver.OnPreDrawListener() {
+                    @Override
+                    public boolean onPreDraw() {
+                        if (mRecyclerView.getChildCount() > 0) {
+                            mRecyclerView.getViewTreeObserver().removeOnPreDrawListener(this);
+                            Log.d(LOG_TAG, "Time to first poster from snapshot: "
+                                    + (SystemClock.elapsedRealtime() - start) + " ms");
+                        }
+                        return true;
+                    }
+                });
+    }
+
+    /**
+     * Stores the first Movies of a list as its snapshot, unless they are already what the
+     * snapshot holds
+     * @param listKey the key of the list
+     * @param movies the Movies at the start of the list
+     */
+    private void saveSnapshot(String listKey, List<Movie> movies) {
+        final List<Movie> snapshot = new ArrayList<>(
+                movies.subList(0, Math.min(movies.size(), MovieSnapshot.MAX_MOVIES)));
+        if (snapshot.isEmpty() || snapshot.equals(mSnapshot)) {
+            return;
+        }
+        mSnapshot = snapshot;
+        final File file = MovieSnapshot.fileFor(getActivity(), listKey);
+        AsyncTask.execute(new Runnable() {
+            @Override
+            public void run() {
+                MovieSnapshot.write(file, snapshot);
+            }
+        });
+    }
 
-        mMovieAdapter = new MovieAdapter(getActivity(), movies);
-        mGridView.setAdapter(mMovieAdapter);
+    /**
+     * Shows the locally indexed Movies matching a query in place of the current list
+     * @param query the text the user has typed so far
+     */
+    void search(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            endSearch();
+            return;
+        }
+        mSearchQuery = query.trim();
+        getLoaderManager().destroyLoader(SEARCH_LOADER_ID);
+        updateUi(SearchIndex.search(mSearchQuery, MAX_SEARCH_RESULTS));
+    }
 
+    /**
+     * Searches The Movie DB for a submitted query when nothing matches it locally
+     * @param query the text the user submitted
+     */
+    void submitSearch(String query) {
+        search(query);
+        if (mSearchQuery == null || !SearchIndex.search(mSearchQuery, 1).isEmpty()) {
+            return;
+        }
+        mNetworkInfo = mConnMgr.getActiveNetworkInfo();
         if (mNetworkInfo != null && mNetworkInfo.isConnected()) {
-            // Set the empty view if there are no Movies to be displayed
-            mGridView.setEmptyView(getActivity().findViewById(R.id.no_content_textview));
+            Bundle args = new Bundle();
+            args.putString(ARG_QUERY, mSearchQuery);
+            getLoaderManager().restartLoader(SEARCH_LOADER_ID, args, this);
+        }
+    }
+
+    /**
+     * Puts the MovieLoader's results back in the grid after a search
+     */
+    void endSearch() {
+        if (mSearchQuery == null) {
+            return;
+        }
+        mSearchQuery = null;
+        getLoaderManager().destroyLoader(SEARCH_LOADER_ID);
+        updateUi(mLoaderMovies);
+    }
+
+    /**
+     * @return the {@link MovieLoader} currently populating the grid, or null if there is none
+     */
+    private MovieLoader getMovieLoader() {
+        Loader<List<Movie>> loader = getLoaderManager().getLoader(MOVIE_LOADER_ID);
+        return loader instanceof MovieLoader ? (MovieLoader) loader : null;
+    }
+
+    /**
+     * Updates the grid. Only the cells whose Movies changed are rebound, and Movies that stay in
+     * the grid keep their place on screen when rows are added or removed above them.
+     * @param movies a List of Movies to populate the grid with
+     */
+    private void updateUi(final List<Movie> movies) {
 
-            TextView noNetwork = (TextView) getActivity().findViewById(R.id.no_connection_textview);
+        mMovieAdapter.setMovies(movies);
+
+        TextView noContent = (TextView) getActivity().findViewById(R.id.no_content_textview);
+        TextView noNetwork = (TextView) getActivity().findViewById(R.id.no_connection_textview);
+        if ((mNetworkInfo != null && mNetworkInfo.isConnected()) || !movies.isEmpty()) {
+            // Show the no content text if there are no Movies to be displayed. Stored Movies are
+            // shown without the no connection text even when offline.
+            noContent.setVisibility(movies.isEmpty() ? View.VISIBLE : View.GONE);
             noNetwork.setVisibility(View.GONE);
 
         } else {
-            // Else if there is no internet connection, display the no connection text
-            TextView noNetwork = (TextView) getActivity().findViewById(R.id.no_connection_textview);
+            // Else if there is no internet connection and nothing stored, display the no
+            // connection text
             noNetwork.setVisibility(View.VISIBLE);
-
-            TextView noContent = (TextView) getActivity().findViewById(R.id.no_content_textview);
             noContent.setVisibility(View.GONE);
         }
 
@@ -153,9 +369,9 @@ public class MainFragment extends Fragment implements LoaderManager.LoaderCallba
     @Override
     public void onSaveInstanceState(Bundle outState) {
         // When tablets rotate, the currently selected list item needs to be saved.
-        // When no item is selected, mPosition will be set to GridView.INVALID_POSTIION,
+        // When no item is selected, mPosition will be set to RecyclerView.NO_POSITION,
         // so check for that before storing.
-        if (mPosition != GridView.INVALID_POSITION) {
+        if (mPosition != RecyclerView.NO_POSITION) {
             outState.putInt(SELECTED_KEY, mPosition);
         }
         super.onSaveInstanceState(outState);
@@ -164,55 +380,55 @@ public class MainFragment extends Fragment implements LoaderManager.LoaderCallba
     @Override
     public Loader<List<Movie>> onCreateLoader(int id, Bundle args) {
 
-        mNetworkInfo = mConnMgr.getActiveNetworkInfo();
-
-        // If there is currently a network connection, populate the GridView
-        if (mNetworkInfo != null && mNetworkInfo.isConnected()) {
-            // Show the loading spinner while the information is being received
+        if (id == SEARCH_LOADER_ID) {
             ProgressBar loadingBar = (ProgressBar) getActivity().findViewById(R.id.loading_spinner);
             loadingBar.setVisibility(View.VISIBLE);
+            return new SearchLoader(getContext(), args.getString(ARG_QUERY));
+        }
 
-            // Get the preferences
-            SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(getActivity());
-
-            // Find out which method the user would like to sort by
-            String orderBy = sharedPrefs.getString(
-                    getString(R.string.pref_sort_by_key),
-                    getString(R.string.pref_sort_by_default)
-            );
-
-            // String values to append to the request URL
-            final String API_KEY = "api_key";
-            final String API_VALUE = BuildConfig.TMDB_API_KEY;
-            final String MOVIE_DB_REQUEST_URL = "http://api.themoviedb.org/3/movie/";
-            final String POPULAR = "popular?";
-            final String TOP_RATED = "top_rated?";
-
-            // Initialize a StringBuilder using the base Movie DB API query URL
-            StringBuilder baseString = new StringBuilder(MOVIE_DB_REQUEST_URL);
-
-            // If the sort by value is the default (Popular), append corresponding API query
-            if (orderBy.equals(getString(R.string.pref_sort_by_default))) {
-                baseString.append(POPULAR);
-            } else if (orderBy.equals("top rated")) {
-                // Else, apply the Top Rated API query
-                baseString.append(TOP_RATED);
-            } else {
-                return new MovieLoader(getContext(), baseString.toString());
-            }
-
-            // Create a Uri and append the API key parameter
-            Uri baseUri = Uri.parse(baseString.toString());
-            Uri.Builder uriBuilder = baseUri.buildUpon().appendQueryParameter(API_KEY, API_VALUE);
-
-            // Return the MovieLoader using the URI API query
-            return new MovieLoader(getContext(), uriBuilder.toString());
+        mNetworkInfo = mConnMgr.getActiveNetworkInfo();
+        boolean online = mNetworkInfo != null && mNetworkInfo.isConnected();
 
+        // Show the loading spinner while the information is being received. Even without a
+        // network connection, the lists last seen are loaded from local storage.
+        ProgressBar loadingBar = (ProgressBar) getActivity().findViewById(R.id.loading_spinner);
+        loadingBar.setVisibility(View.VISIBLE);
+
+        // Get the preferences
+        SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(getActivity());
+
+        // Find out which method the user would like to sort by
+        String orderBy = sharedPrefs.getString(
+                getString(R.string.pref_sort_by_key),
+                getString(R.string.pref_sort_by_default)
+        );
+
+        // String values to append to the request URL
+        final String API_KEY = "api_key";
+        final String API_VALUE = BuildConfig.TMDB_API_KEY;
+        final String MOVIE_DB_REQUEST_URL = "https://api.themoviedb.org/3/movie/";
+        final String POPULAR = "popular?";
+        final String TOP_RATED = "top_rated?";
+
+        // Initialize a StringBuilder using the base Movie DB API query URL
+        StringBuilder baseString = new StringBuilder(MOVIE_DB_REQUEST_URL);
+
+        // If the sort by value is the default (Popular), append corresponding API query
+        if (orderBy.equals(getString(R.string.pref_sort_by_default))) {
+            baseString.append(POPULAR);
+        } else if (orderBy.equals("top rated")) {
+            // Else, apply the Top Rated API query
+            baseString.append(TOP_RATED);
         } else {
-            // Else if there is no internet connection, display the no connection text
-            // Return the MovieLoader using the URI API query
-            return new MovieLoader(getContext(), null);
+            return new MovieLoader(getContext(), baseString.toString(), online, orderBy);
         }
+
+        // Create a Uri and append the API key parameter
+        Uri baseUri = Uri.parse(baseString.toString());
+        Uri.Builder uriBuilder = baseUri.buildUpon().appendQueryParameter(API_KEY, API_VALUE);
+
+        // Return the MovieLoader using the URI API query
+        return new MovieLoader(getContext(), uriBuilder.toString(), online, orderBy);
     }
 
     @Override
@@ -222,19 +438,46 @@ public class MainFragment extends Fragment implements LoaderManager.LoaderCallba
         ProgressBar loadingBar = (ProgressBar) getActivity().findViewById(R.id.loading_spinner);
         loadingBar.setVisibility(View.GONE);
 
+        if (loader.getId() == SEARCH_LOADER_ID) {
+            // Ignore results for a search the user has since changed
+            if (((SearchLoader) loader).getQuery().equals(mSearchQuery)) {
+                updateUi(data);
+            }
+            return;
+        }
+
+        MovieLoader movieLoader = (MovieLoader) loader;
+        mLoaderMovies = data;
+
+        // Keep the start of the popular and top rated lists for the next cold start
+        if (movieLoader.getListKey() != null && movieLoader.getWindowOffset() == 0) {
+            saveSnapshot(movieLoader.getListKey(), data);
+        }
+
+        if (mSearchQuery != null) {
+            // The search results stay on screen until the search ends
+            return;
+        }
+
+        // Only restore the saved position when the grid is first populated, not every time
+        // another page is loaded
+        boolean firstLoad = mMovieAdapter.getItemCount() == 0;
         updateUi(data);
-        if (mPosition != GridView.INVALID_POSITION) {
+        if (firstLoad && mPosition != RecyclerView.NO_POSITION) {
             // If we don't need to restart the loader, and there's a desired position to restore to,
             // do so now.
-            mGridView.smoothScrollToPosition(mPosition);
+            mRecyclerView.smoothScrollToPosition(mPosition);
         }
     }
 
     @Override
     public void onLoaderReset(Loader<List<Movie>> loader) {
-        mNetworkInfo = mConnMgr.getActiveNetworkInfo();
-        // On loader reset, update the UI with an empty list of movies to refresh the list
-        updateUi(new ArrayList<Movie>());
+        if (loader.getId() == SEARCH_LOADER_ID) {
+            return;
+        }
+        // Leave the grid as it is until the restarted loader delivers, so that only the cells
+        // that changed are updated, such as a single removed Favorite
+        mLoaderMovies = new ArrayList<>();
     }
 
 }
@@ -2,23 +2,44 @@ package com.example.android.popularmovies;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.text.TextUtils;
 
+import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.Locale;
 
 /**
  * Object used to store movie data used in populating {@link MainFragment}.
  *
+ * To keep large grids light, only the poster path is kept and poster URLs are built on demand, the
+ * release date is packed into a single int, and the synopsis, which only the details screen shows,
+ * is kept as UTF-8 bytes and decoded when it is asked for.
+ *
  * @author Chase Strackbein
- * @version 1.0
+ * @version 1.1
  * @since 2016-09-14
  */
 public class Movie implements Parcelable {
 
+    // Poster size buckets offered by TheMovieDB
+    public static final String POSTER_SIZE_W92 = "w92";
+    public static final String POSTER_SIZE_W154 = "w154";
+    public static final String POSTER_SIZE_W185 = "w185";
+    public static final String POSTER_SIZE_W342 = "w342";
+    public static final String POSTER_SIZE_W500 = "w500";
+    public static final String POSTER_SIZE_W780 = "w780";
+
+    // Base url for TheMovieDB poster images, followed by the size bucket
+    private static final String BASE_IMAGE_URL = "http://image.tmdb.org/t/p/";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
     private String mMovieId;
     private String mTitle;
-    private String mPosterUrl;
-    private String mSynopsis;
-    private String mReleaseDate;
+    private String mPosterPath;
+    private byte[] mSynopsis;
+    // The release date as yyyymmdd, or 0 if it is unknown
+    private int mReleaseDate;
     private double mUserRating;
 
     @Override
@@ -30,9 +51,9 @@ public class Movie implements Parcelable {
     public void writeToParcel(Parcel dest, int flags) {
         dest.writeString(mMovieId);
         dest.writeString(mTitle);
-        dest.writeString(mPosterUrl);
-        dest.writeString(mSynopsis);
-        dest.writeString(mReleaseDate);
+        dest.writeString(mPosterPath);
+        dest.writeByteArray(mSynopsis);
+        dest.writeInt(mReleaseDate);
         dest.writeDouble(mUserRating);
     }
 
@@ -47,11 +68,35 @@ public class Movie implements Parcelable {
         }
     };
 
-    public Movie (String movieId, String title, String posterUrl, String synopsis, String releaseDate,
+    /**
+     * Constructor
+     * @param movieId the ID of the movie
+     * @param title the title of the movie
+     * @param posterPath the poster path, such as "/abc.jpg"
+     * @param synopsis the overview of the movie
+     * @param releaseDate the release date as yyyy-mm-dd
+     * @param userRating the average user rating out of 10
+     */
+    public Movie (String movieId, String title, String posterPath, String synopsis, String releaseDate,
                   double userRating) {
+        this(movieId, title, posterPath, synopsis != null ? synopsis.getBytes(UTF_8) : null,
+                packDate(releaseDate), userRating);
+    }
+
+    /**
+     * Constructor taking the compact forms of the fields, such as from a snapshot
+     * @param movieId the ID of the movie
+     * @param title the title of the movie
+     * @param posterPath the poster path, such as "/abc.jpg"
+     * @param synopsis the overview of the movie as UTF-8, may be null
+     * @param releaseDate the release date as yyyymmdd, or 0 if it is unknown
+     * @param userRating the average user rating out of 10
+     */
+    Movie(String movieId, String title, String posterPath, byte[] synopsis, int releaseDate,
+          double userRating) {
         mMovieId = movieId;
         mTitle = title;
-        mPosterUrl = posterUrl;
+        mPosterPath = posterPath;
         mSynopsis = synopsis;
         mReleaseDate = releaseDate;
         mUserRating = userRating;
@@ -60,9 +105,9 @@ public class Movie implements Parcelable {
     private Movie(Parcel data) {
         mMovieId = data.readString();
         mTitle = data.readString();
-        mPosterUrl = data.readString();
-        mSynopsis = data.readString();
-        mReleaseDate = data.readString();
+        mPosterPath = data.readString();
+        mSynopsis = data.createByteArray();
+        mReleaseDate = data.readInt();
         mUserRating = data.readDouble();
     }
 
@@ -74,15 +119,55 @@ public class Movie implements Parcelable {
         return mTitle;
     }
 
+    public String getPosterPath() {
+        return mPosterPath;
+    }
+
+    /**
+     * @return the URL of the poster in the default size used by the grid
+     */
     public String getPosterUrl() {
-        return mPosterUrl;
+        return getPosterUrl(POSTER_SIZE_W185);
     }
 
+    /**
+     * @param sizeBucket one of the POSTER_SIZE constants
+     * @return the URL of the poster in the given size, or null if the movie has no poster
+     */
+    public String getPosterUrl(String sizeBucket) {
+        return mPosterPath != null ? BASE_IMAGE_URL + sizeBucket + mPosterPath : null;
+    }
+
+    /**
+     * Decodes the synopsis. It is not kept decoded, so avoid calling this when binding lists.
+     * @return the overview of the movie
+     */
     public String getSynopsis() {
+        return mSynopsis != null ? new String(mSynopsis, UTF_8) : null;
+    }
+
+    /**
+     * @return the synopsis as UTF-8, without decoding it. The array must not be modified.
+     */
+    byte[] getSynopsisBytes() {
         return mSynopsis;
     }
 
+    /**
+     * @return the release date as yyyy-mm-dd, or null if it is unknown
+     */
     public String getReleaseDate() {
+        if (mReleaseDate == 0) {
+            return null;
+        }
+        return String.format(Locale.US, "%04d-%02d-%02d", mReleaseDate / 10000,
+                mReleaseDate / 100 % 100, mReleaseDate % 100);
+    }
+
+    /**
+     * @return the release date as yyyymmdd, or 0 if it is unknown
+     */
+    int getPackedReleaseDate() {
         return mReleaseDate;
     }
 
@@ -95,6 +180,70 @@ public class Movie implements Parcelable {
     }
 
     public String getYear() {
-        return mReleaseDate.substring(0,4);
+        return mReleaseDate != 0 ? Integer.toString(mReleaseDate / 10000) : "";
+    }
+
+    /**
+     * @param releaseDate a date as yyyy-mm-dd, may be null
+     * @return the date as yyyymmdd, or 0 if it couldn't be read
+     */
+    static int packDate(String releaseDate) {
+        if (releaseDate == null || releaseDate.length() < 10) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(releaseDate.substring(0, 4)) * 10000
+                    + Integer.parseInt(releaseDate.substring(5, 7)) * 100
+                    + Integer.parseInt(releaseDate.substring(8, 10));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * @param posterUrl a poster URL, such as one returned by {@link #getPosterUrl(String)}
+     * @return the poster path in the URL, such as "/abc.jpg", or null if it isn't a poster URL
+     */
+    static String toPosterPath(String posterUrl) {
+        if (posterUrl == null || !posterUrl.startsWith(BASE_IMAGE_URL)) {
+            return null;
+        }
+        // Strip the base and the size bucket that follows it
+        int pathStart = posterUrl.indexOf('/', BASE_IMAGE_URL.length());
+        return pathStart >= 0 ? posterUrl.substring(pathStart) : null;
+    }
+
+    /**
+     * @param posterUrl a poster URL, such as one returned by {@link #getPosterUrl(String)}
+     * @return the size bucket in the URL, such as "w185", or null if it isn't a poster URL
+     */
+    static String toSizeBucket(String posterUrl) {
+        if (posterUrl == null || !posterUrl.startsWith(BASE_IMAGE_URL)) {
+            return null;
+        }
+        int pathStart = posterUrl.indexOf('/', BASE_IMAGE_URL.length());
+        return pathStart >= 0 ? posterUrl.substring(BASE_IMAGE_URL.length(), pathStart) : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Movie)) {
+            return false;
+        }
+        Movie other = (Movie) o;
+        return Double.compare(mUserRating, other.mUserRating) == 0
+                && mReleaseDate == other.mReleaseDate
+                && TextUtils.equals(mMovieId, other.mMovieId)
+                && TextUtils.equals(mTitle, other.mTitle)
+                && TextUtils.equals(mPosterPath, other.mPosterPath)
+                && Arrays.equals(mSynopsis, other.mSynopsis);
+    }
+
+    @Override
+    public int hashCode() {
+        return mMovieId != null ? mMovieId.hashCode() : 0;
     }
 }
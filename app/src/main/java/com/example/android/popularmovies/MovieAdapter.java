@@ -1,49 +1,255 @@
 package com.example.android.popularmovies;
 
-import android.app.Activity;
+import android.content.Context;
+import android.content.res.Resources;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v7.util.DiffUtil;
+import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.ArrayAdapter;
 import android.widget.ImageView;
 
+import com.squareup.picasso.Callback;
 import com.squareup.picasso.Picasso;
+import com.squareup.picasso.RequestCreator;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
- * Adapter used to populate the GridView in {@link MainActivity} with the movie posters
+ * Adapter used to populate the poster grid in {@link MainActivity}. New lists are compared with the
+ * displayed one in the background, and only the cells that changed are updated.
  *
  * @author Chase Strackbein
- * @version 1.0
+ * @version 2.0
  * @since 2016-09-16
  */
-public class MovieAdapter extends ArrayAdapter<Movie> {
+public class MovieAdapter extends RecyclerView.Adapter<MovieAdapter.ViewHolder> {
+
+    // Diffs are computed one at a time, in the order the lists were set
+    private static final Executor sDiffExecutor = Executors.newSingleThreadExecutor();
+
+    private final Context mContext;
+    private final OnMovieClickListener mListener;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private PosterPrefetcher mPrefetcher;
+
+    // The size of a poster in pixels, as laid out in the grid
+    private int mPosterWidth;
+    private int mPosterHeight;
+
+    // The displayed Movies. The list is never modified, only replaced, so diffs can read it safely.
+    private List<Movie> mMovies = Collections.emptyList();
+    // Incremented for every new list, so a diff that was overtaken by a newer list is dropped
+    private int mGeneration;
+
+    /**
+     * Listener notified when a poster is clicked
+     */
+    public interface OnMovieClickListener {
+        void onMovieClick(Movie movie, int position);
+    }
 
     // Constructor
-    public MovieAdapter(Activity context, List<Movie> movies) {
-        super(context, 0, movies);
+    public MovieAdapter(Context context, OnMovieClickListener listener) {
+        mContext = context;
+        mListener = listener;
+
+        // Until the grid is laid out, assume the narrowest column
+        Resources res = context.getResources();
+        int margin = res.getDimensionPixelSize(R.dimen.poster_cell_margin);
+        mPosterWidth = res.getDimensionPixelSize(R.dimen.poster_column_width) - 2 * margin;
+        mPosterHeight = res.getDimensionPixelSize(R.dimen.poster_cell_height);
+    }
+
+    /**
+     * Sets the size posters are drawn at, so they are downloaded and decoded at that size
+     * @param columnWidth the width of a grid column in pixels, spacing included
+     */
+    public void setColumnWidth(int columnWidth) {
+        int margin = mContext.getResources().getDimensionPixelSize(R.dimen.poster_cell_margin);
+        int posterWidth = Math.max(1, columnWidth - 2 * margin);
+        if (posterWidth == mPosterWidth) {
+            return;
+        }
+        mPosterWidth = posterWidth;
+        // Reload the displayed posters at the new size
+        notifyItemRangeChanged(0, getItemCount());
+    }
+
+    /**
+     * Replaces the displayed Movies. Filling or clearing the grid is applied straight away;
+     * otherwise the changes are worked out in the background and applied when ready. Must be
+     * called on the main thread.
+     * @param movies the Movies to display
+     */
+    public void setMovies(List<Movie> movies) {
+        final List<Movie> newMovies = Collections.unmodifiableList(new ArrayList<>(movies));
+        final List<Movie> oldMovies = mMovies;
+        final int generation = ++mGeneration;
+
+        if (oldMovies.isEmpty() || newMovies.isEmpty()) {
+            // Nothing to compare; avoid delaying the first paint
+            mMovies = newMovies;
+            notifyDataSetChanged();
+            return;
+        }
+
+        sDiffExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final DiffUtil.DiffResult result =
+                        DiffUtil.calculateDiff(new MovieDiffCallback(oldMovies, newMovies));
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mGeneration) {
+                            return;
+                        }
+                        mMovies = newMovies;
+                        result.dispatchUpdatesTo(MovieAdapter.this);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Sets the prefetcher told about every bound poster, so it can measure its hit rate
+     * @param prefetcher the prefetcher of the grid, may be null
+     */
+    public void setPosterPrefetcher(PosterPrefetcher prefetcher) {
+        mPrefetcher = prefetcher;
+    }
+
+    /**
+     * @return the Picasso instance posters are loaded with
+     */
+    Picasso getPicasso() {
+        return PosterCache.getPicasso(mContext);
+    }
+
+    /**
+     * @param movie a Movie in the grid
+     * @return the URL of the poster the grid shows for it, or null if it has none
+     */
+    String getPosterUrl(Movie movie) {
+        return PosterUrlResolver.resolve(movie, mPosterWidth);
+    }
+
+    /**
+     * Builds a poster request the same way for binding and prefetching, so prefetched posters are
+     * found in the memory cache under the same key
+     * @param url the URL of the poster
+     * @return the request, without a priority or target
+     */
+    RequestCreator createPosterRequest(String url) {
+        return getPicasso().load(url).resize(mPosterWidth, mPosterHeight).centerCrop();
+    }
+
+    /**
+     * @param position a position in the grid
+     * @return the Movie displayed at that position
+     */
+    public Movie getItem(int position) {
+        return mMovies.get(position);
     }
 
     @Override
-    public View getView(int position, View convertView, ViewGroup parent) {
+    public int getItemCount() {
+        return mMovies.size();
+    }
 
-        View listItemView = convertView;
+    @Override
+    public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        View itemView = LayoutInflater.from(mContext).inflate(
+                R.layout.grid_item_layout, parent, false);
+        return new ViewHolder(itemView);
+    }
 
-        // If the current list item is empty, create a new grid_item_layout to fill
-        if (listItemView == null) {
-            listItemView = LayoutInflater.from(getContext()).inflate(
-                    R.layout.grid_item_layout, parent, false);
+    @Override
+    public void onBindViewHolder(ViewHolder holder, int position) {
+        // Use Picasso to load the current Movie's poster into the ImageView. On-screen posters
+        // go first, and take over any low priority prefetch of the same poster.
+        final String url = getPosterUrl(mMovies.get(position));
+        if (mPrefetcher != null) {
+            mPrefetcher.onPosterBound(url);
         }
+        createPosterRequest(url).priority(Picasso.Priority.HIGH)
+                .into(holder.mImageView, new Callback() {
+                    @Override
+                    public void onSuccess() {
+                        PosterUrlResolver.markLoaded(url);
+                    }
 
-        // Retrieve the current Movie's poster image URL
-        ImageView imageView = (ImageView) listItemView.findViewById(R.id.image);
-        Movie currentMovie = getItem(position);
-        // Use Picasso to load the image into the ImageView
-        Picasso.with(getContext()).load(currentMovie.getPosterUrl()).resize(100, 150).centerCrop().into(imageView);
+                    @Override
+                    public void onError() {
+                    }
+                });
+    }
+
+    /**
+     * Holds the views of a single poster cell
+     */
+    class ViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
+
+        final ImageView mImageView;
 
-        return listItemView;
+        ViewHolder(View itemView) {
+            super(itemView);
+            mImageView = (ImageView) itemView.findViewById(R.id.image);
+            itemView.setOnClickListener(this);
+        }
+
+        @Override
+        public void onClick(View v) {
+            int position = getAdapterPosition();
+            if (position != RecyclerView.NO_POSITION && mListener != null) {
+                mListener.onMovieClick(mMovies.get(position), position);
+            }
+        }
     }
 
+    /**
+     * Compares two lists of Movies by ID, and their contents by equality
+     */
+    private static final class MovieDiffCallback extends DiffUtil.Callback {
 
-}
\ No newline at end of file
+        private final List<Movie> mOldMovies;
+        private final List<Movie> mNewMovies;
+
+        MovieDiffCallback(List<Movie> oldMovies, List<Movie> newMovies) {
+            mOldMovies = oldMovies;
+            mNewMovies = newMovies;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return mOldMovies.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return mNewMovies.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            String oldId = mOldMovies.get(oldItemPosition).getMovieId();
+            return oldId != null && oldId.equals(mNewMovies.get(newItemPosition).getMovieId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            Movie oldMovie = mOldMovies.get(oldItemPosition);
+            Movie newMovie = mNewMovies.get(newItemPosition);
+            // Interned Movies are usually the same instance, which avoids comparing fields
+            return oldMovie == newMovie || oldMovie.equals(newMovie);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.android.popularmovies;
+
+import android.util.LruCache;
+
+/**
+ * Process-wide, size-bounded identity map of {@link Movie} objects keyed by their movie ID. Every
+ * Movie parsed from a response is passed through {@link #intern(Movie)} so that the same movie
+ * appearing in several lists is held in memory only once, and so that Favorites already seen in a
+ * list response can be shown without another request.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class MovieCache {
+
+    // Maximum number of Movies to keep in memory
+    private static final int MAX_ENTRIES = 500;
+
+    private static final LruCache<String, Movie> sMovies = new LruCache<>(MAX_ENTRIES);
+
+    /**
+     * A private constructor is used because a {@link MovieCache} object should never be created.
+     */
+    private MovieCache() {
+    }
+
+    /**
+     * Returns the canonical instance of a Movie. If an identical Movie is already cached, that
+     * instance is returned and the given one can be discarded; otherwise the given Movie becomes
+     * the canonical instance for its ID.
+     * @param movie a Movie that was just parsed or unparceled, may be null
+     * @return the canonical instance, or null if {@code movie} was null
+     */
+    public static Movie intern(Movie movie) {
+        if (movie == null || movie.getMovieId() == null) {
+            return movie;
+        }
+
+        synchronized (sMovies) {
+            Movie cached = sMovies.get(movie.getMovieId());
+            if (movie.equals(cached)) {
+                return cached;
+            }
+            sMovies.put(movie.getMovieId(), movie);
+            return movie;
+        }
+    }
+
+    /**
+     * @param movieId the ID of a Movie
+     * @return the cached Movie with the given ID, or null if it isn't cached
+     */
+    public static Movie get(String movieId) {
+        if (movieId == null) {
+            return null;
+        }
+        return sMovies.get(movieId);
+    }
+}
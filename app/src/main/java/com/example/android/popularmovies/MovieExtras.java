@@ -0,0 +1,47 @@
+package com.example.android.popularmovies;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The trailers and reviews of a Movie, as loaded and parsed in the background by
+ * {@link MovieExtrasLoader}. Immutable, so a single instance can be shared by every caller that
+ * made the same request.
+ *
+ * @author Chase Strackbein
+ * @version 1.2
+ * @since 2026-10-18
+ */
+public class MovieExtras {
+
+    private final List<Trailer> mTrailers;
+    private final List<Review> mReviews;
+    private final int mReviewTotalPages;
+
+    /**
+     * Constructor
+     * @param trailers the movie's trailers, or null if unavailable
+     * @param reviews the first page of the movie's reviews, or null if unavailable
+     */
+    public MovieExtras(List<Trailer> trailers, ReviewPage reviews) {
+        mTrailers = trailers != null ? Collections.unmodifiableList(trailers)
+                : Collections.<Trailer>emptyList();
+        mReviews = reviews != null ? reviews.getReviews() : Collections.<Review>emptyList();
+        mReviewTotalPages = reviews != null ? reviews.getTotalPages() : 1;
+    }
+
+    public List<Trailer> getTrailers() {
+        return mTrailers;
+    }
+
+    /**
+     * @return the reviews on the first page; further pages are loaded on demand
+     */
+    public List<Review> getReviews() {
+        return mReviews;
+    }
+
+    public int getReviewTotalPages() {
+        return mReviewTotalPages;
+    }
+}
@@ -2,26 +2,37 @@ package com.example.android.popularmovies;
 
 import android.content.Context;
 import android.support.v4.content.AsyncTaskLoader;
+import android.text.TextPaint;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  * Loader class used to perform HTTP requests in the background threads for Movie trailers and reviews.
+ * Depending on configuration, both are fetched with a single append_to_response request or with
+ * two requests running in parallel. The responses are parsed into {@link Trailer} and
+ * {@link Review} objects in the background, so the UI only has to bind them.
  *
  * @author Chase Strackbein
- * @version 1.0
+ * @version 1.2
  * @since 2016-09-29
  */
-public class MovieExtrasLoader extends AsyncTaskLoader<List<String>> {
+public class MovieExtrasLoader extends AsyncTaskLoader<MovieExtras> {
 
     private static final String BASE_URL = "https://api.themoviedb.org/3/movie/";
     private static final String TRAILER_URL = "/videos";
     private static final String REVIEWS_URL = "/reviews";
     private static final String API_URL = "?api_key=";
     private static final String LANGUAGE_URL = "&language=en-US";
+    private static final String APPEND_URL = "&append_to_response=videos,reviews";
 
     private String mMovieId;
+    private boolean mSingleRequest;
+    // What the reviews will be laid out with, or null to leave them to the UI thread. Set from
+    // the UI thread, possibly while loading.
+    private volatile TextPaint mTextPaint;
+    private volatile int mTextWidth;
 
     /**
      * Constructor
@@ -31,6 +42,19 @@ public class MovieExtrasLoader extends AsyncTaskLoader<List<String>> {
     public MovieExtrasLoader(Context context, String movieId) {
         super(context);
         mMovieId = movieId;
+        mSingleRequest = context.getResources().getBoolean(R.bool.extras_single_request);
+    }
+
+    /**
+     * Has the loader lay out the reviews after loading them, so the UI only attaches the layouts.
+     * May be called while loading, such as once the width is known; it is used if the reviews
+     * haven't been fetched yet.
+     * @param paint the paint the reviews are drawn with
+     * @param width the width of the review text in pixels
+     */
+    public void setReviewTextLayout(TextPaint paint, int width) {
+        mTextPaint = paint != null ? new TextPaint(paint) : null;
+        mTextWidth = width;
     }
 
     @Override
@@ -39,23 +63,101 @@ public class MovieExtrasLoader extends AsyncTaskLoader<List<String>> {
     }
 
     @Override
-    public List<String> loadInBackground() {
+    public MovieExtras loadInBackground() {
         if (mMovieId == null) {
             return null;
         }
 
-        List<String> movieExtras = new ArrayList<>();
+        MovieExtras extras = loadExtras(mMovieId, mSingleRequest);
+        TextLayoutCache.prepareReviews(extras.getReviews(), mTextPaint, mTextWidth);
+        return extras;
+    }
+
+    /**
+     * Fetches the trailers and reviews of a movie. Blocks on the network, so it must be called
+     * from a background thread.
+     * @param movieId the ID of the Movie to retrieve data for
+     * @param singleRequest whether to use one append_to_response request rather than two
+     *                      parallel ones
+     * @return the trailers and reviews of the movie
+     */
+    static MovieExtras loadExtras(String movieId, boolean singleRequest) {
+        List<String> urls = getExtrasUrls(movieId, singleRequest);
+        if (singleRequest) {
+            return loadWithSingleRequest(urls.get(0));
+        }
+        return loadInParallel(urls.get(0), urls.get(1));
+    }
+
+    /**
+     * @param movieId the ID of a Movie
+     * @param singleRequest whether one append_to_response request is used rather than two
+     * @return the URLs requested for the movie's trailers and reviews
+     */
+    static List<String> getExtrasUrls(String movieId, boolean singleRequest) {
+        List<String> urls = new ArrayList<>(2);
+        if (singleRequest) {
+            urls.add(BASE_URL + movieId + API_URL + BuildConfig.TMDB_API_KEY + LANGUAGE_URL
+                    + APPEND_URL);
+        } else {
+            urls.add(BASE_URL + movieId + TRAILER_URL + API_URL + BuildConfig.TMDB_API_KEY
+                    + LANGUAGE_URL);
+            urls.add(BASE_URL + movieId + REVIEWS_URL + API_URL + BuildConfig.TMDB_API_KEY
+                    + LANGUAGE_URL);
+        }
+        return urls;
+    }
+
+    /**
+     * Fetches a further page of a movie's reviews. Blocks on the network, so it must be called
+     * from a background thread.
+     * @param movieId the ID of the Movie to retrieve reviews for
+     * @param page the 1-based number of the page to fetch
+     * @return the page of reviews, or null if the request failed
+     */
+    static ReviewPage loadReviewPage(String movieId, int page) {
+        return QueryUtils.fetchReviewPage(BASE_URL + movieId + REVIEWS_URL + API_URL
+                + BuildConfig.TMDB_API_KEY + LANGUAGE_URL + "&page=" + page);
+    }
 
-        // Fetch and store the videos in the first (0th) index of the array
-        String videosUrl = BASE_URL + mMovieId + TRAILER_URL + API_URL + BuildConfig.TMDB_API_KEY
-                + LANGUAGE_URL;
-        movieExtras.add(QueryUtils.fetchMovieExtras(videosUrl));
+    /**
+     * Fetches the videos and reviews along with the movie details in one round trip
+     * @param url the append_to_response URL
+     * @return the trailers and reviews of the movie
+     */
+    private static MovieExtras loadWithSingleRequest(String url) {
+        MovieExtras extras = QueryUtils.fetchMovieExtras(url);
+        return extras != null ? extras : new MovieExtras(null, null);
+    }
+
+    /**
+     * Fetches the videos and reviews with two requests running at the same time
+     * @param videosUrl the URL of the movie's videos
+     * @param reviewsUrl the URL of the movie's reviews
+     * @return the trailers and reviews of the movie
+     */
+    private static MovieExtras loadInParallel(final String videosUrl, final String reviewsUrl) {
 
-        // Fetch and store the reviews in the second (1st) index of the array
-        String reviewsUrl = BASE_URL + mMovieId + REVIEWS_URL + API_URL + BuildConfig.TMDB_API_KEY
-                + LANGUAGE_URL;
-        movieExtras.add(QueryUtils.fetchMovieExtras(reviewsUrl));
+        // Each request fills in its half of the extras
+        List<Callable<MovieExtras>> requests = new ArrayList<>(2);
+        requests.add(new Callable<MovieExtras>() {
+            @Override
+            public MovieExtras call() {
+                return new MovieExtras(QueryUtils.fetchTrailers(videosUrl), null);
+            }
+        });
+        requests.add(new Callable<MovieExtras>() {
+            @Override
+            public MovieExtras call() {
+                return new MovieExtras(null, QueryUtils.fetchReviewPage(reviewsUrl));
+            }
+        });
 
-        return movieExtras;
+        List<MovieExtras> results = ParallelFetcher.fetchAll(requests, requests.size(), null);
+        MovieExtras trailers = results.get(0);
+        MovieExtras reviews = results.get(1);
+        return new MovieExtras(trailers != null ? trailers.getTrailers() : null,
+                reviews != null ? new ReviewPage(1, reviews.getReviewTotalPages(),
+                        reviews.getReviews()) : null);
     }
 }
@@ -0,0 +1,270 @@
+package com.example.android.popularmovies;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming parser that reads TheMovieDB JSON responses token by token straight into
+ * {@link Movie}, {@link Trailer} and {@link Review} objects. Only the fields those need are
+ * decoded; everything else (genre_ids, backdrop_path, popularity, etc.) is skipped without being
+ * materialized, and the full document is never held in memory.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class MovieJsonParser {
+
+    /**
+     * A private constructor is used because a {@link MovieJsonParser} object should never be created.
+     */
+    private MovieJsonParser() {
+    }
+
+    /**
+     * Reads a list response, such as /movie/popular, into a {@link MoviePage}
+     * @param reader a JsonReader positioned at the start of the response
+     * @return the page number, total page count and the movies found in the "results" array
+     * @throws IOException if the response could not be read or is malformed
+     */
+    public static MoviePage readMoviePage(JsonReader reader) throws IOException {
+
+        List<Movie> movies = new ArrayList<>();
+        int page = 1;
+        int totalPages = 1;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("results".equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                // For each movie in the results, read it and add it to the list
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    // Share a single instance with any other list the movie appears in
+                    movies.add(MovieCache.intern(readMovie(reader)));
+                }
+                reader.endArray();
+            } else if ("page".equals(name) && reader.peek() == JsonToken.NUMBER) {
+                page = reader.nextInt();
+            } else if ("total_pages".equals(name) && reader.peek() == JsonToken.NUMBER) {
+                totalPages = reader.nextInt();
+            } else {
+                // Skip anything else we don't use
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new MoviePage(page, totalPages, movies);
+    }
+
+    /**
+     * Reads a single movie object, such as a /movie/{id} response or an element of a list's
+     * "results" array, into a {@link Movie}
+     * @param reader a JsonReader positioned at the start of the movie object
+     * @return the {@link Movie} that was read
+     * @throws IOException if the response could not be read or is malformed
+     */
+    public static Movie readMovie(JsonReader reader) throws IOException {
+
+        String movieId = null;
+        String title = null;
+        String posterPath = null;
+        String synopsis = null;
+        String releaseDate = null;
+        double userRating = 0;
+
+        // Extract the movie's id, title, poster path, synopsis, release date, and user rating,
+        // skipping every other field
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id":
+                    movieId = reader.nextString();
+                    break;
+                case "title":
+                    title = reader.nextString();
+                    break;
+                case "poster_path":
+                    posterPath = reader.nextString();
+                    break;
+                case "overview":
+                    synopsis = reader.nextString();
+                    break;
+                case "release_date":
+                    releaseDate = reader.nextString();
+                    break;
+                case "vote_average":
+                    userRating = reader.nextDouble();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+
+        return new Movie(movieId, title, posterPath, synopsis, releaseDate, userRating);
+    }
+
+    /**
+     * Reads a /movie/{id} response with videos and reviews appended to it
+     * @param reader a JsonReader positioned at the start of the response
+     * @return the trailers and reviews found in the "videos" and "reviews" objects
+     * @throws IOException if the response could not be read or is malformed
+     */
+    public static MovieExtras readMovieExtras(JsonReader reader) throws IOException {
+
+        List<Trailer> trailers = null;
+        ReviewPage reviews = null;
+
+        // Only the appended objects are read; the movie details themselves are skipped
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("videos".equals(name) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                trailers = readTrailers(reader);
+            } else if ("reviews".equals(name) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                reviews = readReviewPage(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new MovieExtras(trailers, reviews);
+    }
+
+    /**
+     * Reads a videos response, such as /movie/{id}/videos, into a list of {@link Trailer} objects
+     * @param reader a JsonReader positioned at the start of the response
+     * @return the trailers found in the "results" array
+     * @throws IOException if the response could not be read or is malformed
+     */
+    public static List<Trailer> readTrailers(JsonReader reader) throws IOException {
+
+        List<Trailer> trailers = new ArrayList<>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("results".equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    Trailer trailer = readTrailer(reader);
+                    // A trailer that can't be played is of no use
+                    if (trailer.getKey() != null) {
+                        trailers.add(trailer);
+                    }
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return trailers;
+    }
+
+    /**
+     * Reads a page of a reviews response, such as /movie/{id}/reviews, into {@link Review} objects
+     * @param reader a JsonReader positioned at the start of the response
+     * @return the page number, total page count and the reviews found in the "results" array
+     * @throws IOException if the response could not be read or is malformed
+     */
+    public static ReviewPage readReviewPage(JsonReader reader) throws IOException {
+
+        int page = 1;
+        int totalPages = 1;
+        List<Review> reviews = new ArrayList<>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("page".equals(name) && reader.peek() == JsonToken.NUMBER) {
+                page = reader.nextInt();
+            } else if ("total_pages".equals(name) && reader.peek() == JsonToken.NUMBER) {
+                totalPages = reader.nextInt();
+            } else if ("results".equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    reviews.add(readReview(reader));
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new ReviewPage(page, totalPages, reviews);
+    }
+
+    private static Trailer readTrailer(JsonReader reader) throws IOException {
+
+        String name = null;
+        String key = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (field) {
+                case "name":
+                    name = reader.nextString();
+                    break;
+                case "key":
+                    key = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+
+        return new Trailer(name, key);
+    }
+
+    private static Review readReview(JsonReader reader) throws IOException {
+
+        String author = null;
+        String content = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (field) {
+                case "author":
+                    author = reader.nextString();
+                    break;
+                case "content":
+                    content = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+
+        return new Review(author, content);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.android.popularmovies;
+
+import android.provider.BaseColumns;
+
+/**
+ * Defines the table and column names for the database of previously loaded movie lists.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class MovieListContract {
+
+    /**
+     * A private constructor is used because a {@link MovieListContract} object should never be created.
+     */
+    private MovieListContract() {
+    }
+
+    /**
+     * Inner class that defines the table contents of the list table. Each row is one
+     * {@link Movie} at one position of one list, such as the popular or top rated list.
+     */
+    public static final class ListEntry implements BaseColumns {
+
+        public static final String TABLE_NAME = "movie_lists";
+
+        // Which list the row belongs to, e.g. "popular"
+        public static final String COLUMN_LIST_KEY = "list_key";
+        // The position of the movie within its list
+        public static final String COLUMN_POSITION = "position";
+        public static final String COLUMN_MOVIE_ID = "movie_id";
+        public static final String COLUMN_TITLE = "title";
+        // The poster path, such as "/abc.jpg"
+        public static final String COLUMN_POSTER_PATH = "poster_path";
+        public static final String COLUMN_SYNOPSIS = "synopsis";
+        public static final String COLUMN_RELEASE_DATE = "release_date";
+        public static final String COLUMN_RATING = "rating";
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.android.popularmovies;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import com.example.android.popularmovies.MovieListContract.ListEntry;
+
+/**
+ * Manages the local database holding the last loaded popular and top rated lists.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class MovieListDbHelper extends SQLiteOpenHelper {
+
+    // If you change the database schema, you must increment the database version.
+    private static final int DATABASE_VERSION = 1;
+
+    static final String DATABASE_NAME = "movie_lists.db";
+
+    public MovieListDbHelper(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase sqLiteDatabase) {
+        // Each list is read back in position order, so the unique constraint on
+        // (list, position) doubles as the index for that query
+        final String SQL_CREATE_LIST_TABLE = "CREATE TABLE " + ListEntry.TABLE_NAME + " ("
+                + ListEntry._ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + ListEntry.COLUMN_LIST_KEY + " TEXT NOT NULL, "
+                + ListEntry.COLUMN_POSITION + " INTEGER NOT NULL, "
+                + ListEntry.COLUMN_MOVIE_ID + " TEXT NOT NULL, "
+                + ListEntry.COLUMN_TITLE + " TEXT, "
+                + ListEntry.COLUMN_POSTER_PATH + " TEXT, "
+                + ListEntry.COLUMN_SYNOPSIS + " TEXT, "
+                + ListEntry.COLUMN_RELEASE_DATE + " TEXT, "
+                + ListEntry.COLUMN_RATING + " REAL NOT NULL, "
+                + " UNIQUE (" + ListEntry.COLUMN_LIST_KEY + ", " + ListEntry.COLUMN_POSITION
+                + ") ON CONFLICT REPLACE);";
+
+        sqLiteDatabase.execSQL(SQL_CREATE_LIST_TABLE);
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase sqLiteDatabase, int oldVersion, int newVersion) {
+        // This database is only a cache of data from TheMovieDB, so simply start over
+        sqLiteDatabase.execSQL("DROP TABLE IF EXISTS " + ListEntry.TABLE_NAME);
+        onCreate(sqLiteDatabase);
+    }
+}
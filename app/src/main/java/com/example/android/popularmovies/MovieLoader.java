@@ -1,37 +1,140 @@
 package com.example.android.popularmovies;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.v4.content.AsyncTaskLoader;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
- * Loader class used to perform HTTP requests in the background threads
+ * Loader class used to perform HTTP requests in the background threads. Popular and top rated
+ * lists are loaded a page at a time through a {@link PagedMovieSource}; each result is the current
+ * window of loaded pages.
  *
  * @author Chase Strackbein
- * @version 1.0
+ * @version 1.2
  * @since 2016-09-14
  */
 public class MovieLoader extends AsyncTaskLoader<List<Movie>> {
 
+    // The kinds of page loads that can be requested
+    private static final int LOAD_FIRST_PAGE = 0;
+    private static final int LOAD_NEXT_PAGE = 1;
+    private static final int LOAD_PREVIOUS_PAGE = 2;
+
     // Global variable for the URL used to send the request
     private String mUrl;
     private Context mContext;
 
+    // Whether there was a network connection when the loader was created
+    private final boolean mOnline;
+    // The sort order preference the loader was created for
+    private final String mSortOrder;
+
+    // The paged source for popular and top rated lists and the key they are persisted under, or
+    // null for Favorites
+    private final PagedMovieSource mPagedSource;
+    private final String mListKey;
+    private int mPendingLoad = LOAD_FIRST_PAGE;
+    private boolean mPageLoadInProgress;
+    private volatile int mWindowOffset;
+    private List<Movie> mMovies;
+
+    // Used to deliver partial Favorites results on the main thread while the rest are loading
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
     /**
      * Constructor
      * @param context the activity utilizing the loader
      * @param url a URL to request a {@link Movie} list from
+     * @param online whether there is a network connection; without one only locally stored
+     *               Movies are loaded
+     * @param sortOrder the sort order preference the URL was built for
      */
-    public MovieLoader (Context context, String url) {
+    public MovieLoader (Context context, String url, boolean online, String sortOrder) {
         super(context);
         mUrl = url;
         mContext = context;
+        mOnline = online;
+        mSortOrder = sortOrder;
+        mListKey = MovieRepository.listKeyFor(url);
+        mPagedSource = mListKey != null ? new PagedMovieSource(url) : null;
     }
 
     @Override
     protected void onStartLoading() {
+        if (mMovies != null) {
+            // Hand back what has already been loaded rather than starting over from page one
+            deliverResult(mMovies);
+        } else {
+            forceLoad();
+        }
+    }
+
+    @Override
+    public void deliverResult(List<Movie> data) {
+        mMovies = data;
+        mPageLoadInProgress = false;
+        super.deliverResult(data);
+    }
+
+    /**
+     * Starts loading the page after the loaded window, unless a page is already being loaded or
+     * there are no more pages. Must be called on the main thread.
+     */
+    public void loadNextPage() {
+        if (mPagedSource != null && mOnline && !mPageLoadInProgress && mPagedSource.hasNextPage()) {
+            startPageLoad(LOAD_NEXT_PAGE);
+        }
+    }
+
+    /**
+     * Starts loading the page before the loaded window, unless a page is already being loaded or
+     * the window already starts at the first page. Must be called on the main thread.
+     */
+    public void loadPreviousPage() {
+        if (mPagedSource != null && mOnline && !mPageLoadInProgress && mPagedSource.hasPreviousPage()) {
+            startPageLoad(LOAD_PREVIOUS_PAGE);
+        }
+    }
+
+    /**
+     * @return the key the loaded list is persisted under, or null for Favorites
+     */
+    public String getListKey() {
+        return mListKey;
+    }
+
+    /**
+     * @return whether there was a network connection when the loader was created
+     */
+    public boolean isOnline() {
+        return mOnline;
+    }
+
+    /**
+     * @return the sort order preference the loader was created for
+     */
+    public String getSortOrder() {
+        return mSortOrder;
+    }
+
+    /**
+     * @return the position in the full list of the first Movie of the most recent result
+     */
+    public int getWindowOffset() {
+        return mWindowOffset;
+    }
+
+    private void startPageLoad(int load) {
+        mPendingLoad = load;
+        mPageLoadInProgress = true;
         forceLoad();
     }
 
@@ -41,10 +144,131 @@ public class MovieLoader extends AsyncTaskLoader<List<Movie>> {
         if (mUrl == null) {
             return new ArrayList<>();
         }
-        if (mUrl.contains("popular") || mUrl.contains("top_rated")) {
-            // Return a list of Movie objects
-            return QueryUtils.fetchMovieData(mUrl);
+        if (mPagedSource != null) {
+            // Load the requested page and return the window of Movie objects
+            switch (mPendingLoad) {
+                case LOAD_NEXT_PAGE:
+                    mPagedSource.loadNextPage();
+                    break;
+                case LOAD_PREVIOUS_PAGE:
+                    mPagedSource.loadPreviousPage();
+                    break;
+                default:
+                    // Show the persisted copy of the first page, then refresh it
+                    mWindowOffset = 0;
+                    return MovieRepository.getInstance(mContext).loadList(mListKey, mPagedSource,
+                            mOnline, new MovieRepository.Callback() {
+                                @Override
+                                public void onCachedList(List<Movie> movies) {
+                                    deliverPartialResult(movies);
+                                }
+                            });
+            }
+            mWindowOffset = mPagedSource.getOffset();
+            return mPagedSource.getMovies();
+        }
+
+        return loadFavorites();
+    }
+
+    /**
+     * Loads the Favorites from the local database. Favorites that aren't stored yet, such as those
+     * added before the database existed, are fetched in parallel and stored; if background refresh
+     * is enabled every Favorite is refetched after the stored copies have been delivered.
+     * @return the Favorites, in the order they were added
+     */
+    private List<Movie> loadFavorites() {
+        final FavoritesStore store = FavoritesStore.getInstance(mContext);
+        Set<String> favoriteIds = Utility.getFavorites(mContext);
+
+        // Read the stored Favorites with a single local query
+        final List<Movie> stored = new ArrayList<>();
+        Set<String> missingIds = new HashSet<>(favoriteIds);
+        for (Movie movie : store.getFavorites()) {
+            if (favoriteIds.contains(movie.getMovieId())) {
+                stored.add(movie);
+                missingIds.remove(movie.getMovieId());
+            }
+        }
+
+        // Without a connection the stored Favorites are all that can be shown
+        boolean refresh = Utility.isFavoritesRefreshEnabled(mContext);
+        if (!mOnline || (missingIds.isEmpty() && !refresh)) {
+            return stored;
+        }
+
+        // Show what is stored straight away while the rest are fetched
+        if (!stored.isEmpty()) {
+            deliverPartialResult(new ArrayList<>(stored));
         }
-        return QueryUtils.fetchFavoritesData(Utility.getFavorites(mContext), mUrl);
+
+        // Fetch the Favorites in parallel, delivering each Movie as soon as it arrives
+        int parallelism = mContext.getResources().getInteger(R.integer.favorites_fetch_parallelism);
+        List<Movie> fetched = QueryUtils.fetchFavoritesData(refresh ? favoriteIds : missingIds,
+                mUrl, parallelism, new ParallelFetcher.Listener<Movie>() {
+                    // Slots ordered like the final result, filled in as the requests complete
+                    private final List<Movie> mSlots = new ArrayList<>();
+
+                    @Override
+                    public void onResult(int index, Movie result) {
+                        while (mSlots.size() <= index) {
+                            mSlots.add(null);
+                        }
+                        mSlots.set(index, result);
+                        deliverPartialResult(mergeFavorites(stored, mSlots));
+                    }
+                });
+
+        // Store the fetched Favorites so the next load is purely local
+        for (Movie movie : fetched) {
+            store.saveFavorite(movie);
+        }
+
+        // Merge exactly as the partial results were, so rows already shown don't move
+        return mergeFavorites(stored, fetched);
+    }
+
+    /**
+     * Merges fetched Favorites into the stored ones. A fetched copy of a stored Favorite replaces
+     * it in place, even if its details changed; Favorites that weren't stored follow in the order
+     * they were fetched.
+     * @param stored the stored Favorites, in the order they were added
+     * @param fetched the fetched Favorites, may contain nulls for requests still in flight
+     * @return the merged Favorites
+     */
+    private static List<Movie> mergeFavorites(List<Movie> stored, List<Movie> fetched) {
+        List<Movie> merged = new ArrayList<>(stored);
+        Map<String, Integer> indexById = new HashMap<>();
+        for (int i=0; i<merged.size(); i++) {
+            indexById.put(merged.get(i).getMovieId(), i);
+        }
+        for (Movie movie : fetched) {
+            if (movie == null) {
+                continue;
+            }
+            Integer index = indexById.get(movie.getMovieId());
+            if (index != null) {
+                merged.set(index, movie);
+            } else {
+                indexById.put(movie.getMovieId(), merged.size());
+                merged.add(movie);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Delivers an incomplete result to the registered callbacks on the main thread
+     * @param movies the Movies that have been loaded so far
+     */
+    private void deliverPartialResult(final List<Movie> movies) {
+        mMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (isStarted() && !isAbandoned() && !isReset()) {
+                    deliverResult(movies);
+                }
+            }
+        });
     }
 }
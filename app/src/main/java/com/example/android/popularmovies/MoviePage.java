@@ -0,0 +1,50 @@
+package com.example.android.popularmovies;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single page of a paged TheMovieDB list response, such as /movie/popular.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class MoviePage {
+
+    private final int mPage;
+    private final int mTotalPages;
+    private final List<Movie> mMovies;
+
+    /**
+     * Constructor
+     * @param page the 1-based number of this page
+     * @param totalPages the total number of pages available
+     * @param movies the movies on this page
+     */
+    public MoviePage(int page, int totalPages, List<Movie> movies) {
+        mPage = page;
+        mTotalPages = totalPages;
+        // Pages may be shared between loaders, so they must never be modified
+        mMovies = Collections.unmodifiableList(movies);
+    }
+
+    public int getPage() {
+        return mPage;
+    }
+
+    public int getTotalPages() {
+        return mTotalPages;
+    }
+
+    public List<Movie> getMovies() {
+        return mMovies;
+    }
+
+    /**
+     * @return true if there is at least one more page after this one
+     */
+    public boolean hasNextPage() {
+        return mPage < mTotalPages;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.android.popularmovies;
+
+import android.content.Context;
+import android.util.LruCache;
+
+/**
+ * Process-wide registry of the Movies being shown on the details screen. Only a Movie's ID is put
+ * in Intents, fragment arguments and saved state; the full Movie is looked up here on the other
+ * side, so it never has to be parceled across Binder.
+ *
+ * Registered Movies are held separately from {@link MovieCache}, so scrolling a long grid can't
+ * evict a Movie that is open. After process death the Movie is read back from the Favorites or
+ * list databases instead.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class MovieRegistry {
+
+    // Maximum number of registered Movies, comfortably more than can be open at once
+    private static final int MAX_ENTRIES = 32;
+
+    private static final LruCache<String, Movie> sMovies = new LruCache<>(MAX_ENTRIES);
+
+    /**
+     * A private constructor is used because a {@link MovieRegistry} object should never be created.
+     */
+    private MovieRegistry() {
+    }
+
+    /**
+     * Registers a Movie so it can be passed around by its ID
+     * @param movie the Movie to register, may be null
+     * @return the ID to pass instead of the Movie, or null if there is no Movie or it has no ID
+     */
+    public static String register(Movie movie) {
+        if (movie == null || movie.getMovieId() == null) {
+            return null;
+        }
+        Movie canonical = MovieCache.intern(movie);
+        sMovies.put(canonical.getMovieId(), canonical);
+        return canonical.getMovieId();
+    }
+
+    /**
+     * Looks up a Movie by its ID in memory only, so it is safe to call on the main thread
+     * @param movieId the ID of the Movie, may be null
+     * @return the Movie, or null if it isn't in memory and has to be resolved
+     */
+    public static Movie peek(String movieId) {
+        if (movieId == null) {
+            return null;
+        }
+        Movie movie = sMovies.get(movieId);
+        return movie != null ? movie : MovieCache.get(movieId);
+    }
+
+    /**
+     * Looks up a Movie by its ID, first in memory and then in the local databases. The database
+     * lookups normally only happen after the process has been restarted, and read a single row,
+     * but they block, so this must be called from a background thread such as a loader's.
+     * @param context any context
+     * @param movieId the ID of the Movie, may be null
+     * @return the Movie, or null if it can't be found
+     */
+    public static Movie resolve(Context context, String movieId) {
+        if (movieId == null) {
+            return null;
+        }
+        Movie movie = peek(movieId);
+        if (movie == null) {
+            movie = FavoritesStore.getInstance(context).getFavorite(movieId);
+        }
+        if (movie == null) {
+            movie = MovieRepository.getInstance(context).getMovie(movieId);
+        }
+        if (movie != null) {
+            register(movie);
+        }
+        return movie;
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.android.popularmovies;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.net.Uri;
+
+import com.example.android.popularmovies.MovieListContract.ListEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Offline-first repository for the popular and top rated lists. The last result of each list is
+ * persisted locally so it can be shown immediately, with or without a network connection, while a
+ * fresh copy is fetched in the background.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class MovieRepository {
+
+    // Keys identifying the persisted lists
+    public static final String LIST_POPULAR = "popular";
+    public static final String LIST_TOP_RATED = "top_rated";
+
+    private static final String[] MOVIE_COLUMNS = {
+            ListEntry.COLUMN_MOVIE_ID,
+            ListEntry.COLUMN_TITLE,
+            ListEntry.COLUMN_POSTER_PATH,
+            ListEntry.COLUMN_SYNOPSIS,
+            ListEntry.COLUMN_RELEASE_DATE,
+            ListEntry.COLUMN_RATING
+    };
+
+    // These indices are tied to MOVIE_COLUMNS. If MOVIE_COLUMNS changes, these must change.
+    private static final int COL_MOVIE_ID = 0;
+    private static final int COL_TITLE = 1;
+    private static final int COL_POSTER_PATH = 2;
+    private static final int COL_SYNOPSIS = 3;
+    private static final int COL_RELEASE_DATE = 4;
+    private static final int COL_RATING = 5;
+
+    private static MovieRepository sInstance;
+
+    private final MovieListDbHelper mDbHelper;
+
+    /**
+     * @param context any context, only its application context is kept
+     * @return the single {@link MovieRepository} for the process
+     */
+    public static synchronized MovieRepository getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new MovieRepository(new MovieListDbHelper(context.getApplicationContext()));
+        }
+        return sInstance;
+    }
+
+    private MovieRepository(MovieListDbHelper dbHelper) {
+        mDbHelper = dbHelper;
+    }
+
+    /**
+     * @param listKey the key of a persisted list
+     * @return the URL the list is requested from
+     */
+    public static String urlFor(String listKey) {
+        // Built the same way as the URLs the grid requests, so both share cached responses
+        return Uri.parse("https://api.themoviedb.org/3/movie/" + listKey + "?").buildUpon()
+                .appendQueryParameter("api_key", BuildConfig.TMDB_API_KEY).toString();
+    }
+
+    /**
+     * @param url a list request URL, may be null
+     * @return the key of the persisted list the URL belongs to, or null if it isn't persisted
+     */
+    public static String listKeyFor(String url) {
+        if (url == null) {
+            return null;
+        } else if (url.contains(LIST_POPULAR)) {
+            return LIST_POPULAR;
+        } else if (url.contains(LIST_TOP_RATED)) {
+            return LIST_TOP_RATED;
+        }
+        return null;
+    }
+
+    /**
+     * @param listKey the key of a persisted list
+     * @return the last persisted result of the list, or an empty list if there is none
+     */
+    public List<Movie> getList(String listKey) {
+        SQLiteDatabase db = mDbHelper.getReadableDatabase();
+        Cursor cursor = db.query(ListEntry.TABLE_NAME, MOVIE_COLUMNS,
+                ListEntry.COLUMN_LIST_KEY + " = ?", new String[]{listKey}, null, null,
+                ListEntry.COLUMN_POSITION + " ASC");
+        List<Movie> movies = new ArrayList<>(cursor.getCount());
+        try {
+            while (cursor.moveToNext()) {
+                movies.add(MovieCache.intern(movieFromCursor(cursor)));
+            }
+        } finally {
+            cursor.close();
+        }
+        SearchIndex.addAll(movies);
+        return movies;
+    }
+
+    /**
+     * @param movieId the ID of a Movie
+     * @return the Movie from whichever persisted list holds it, or null if none does
+     */
+    public Movie getMovie(String movieId) {
+        SQLiteDatabase db = mDbHelper.getReadableDatabase();
+        Cursor cursor = db.query(ListEntry.TABLE_NAME, MOVIE_COLUMNS,
+                ListEntry.COLUMN_MOVIE_ID + " = ?", new String[]{movieId}, null, null, null, "1");
+        try {
+            return cursor.moveToFirst() ? MovieCache.intern(movieFromCursor(cursor)) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Replaces the persisted result of a list
+     * @param listKey the key of the list
+     * @param movies the new result
+     */
+    public void saveList(String listKey, List<Movie> movies) {
+        SQLiteDatabase db = mDbHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(ListEntry.TABLE_NAME, ListEntry.COLUMN_LIST_KEY + " = ?",
+                    new String[]{listKey});
+            ContentValues values = new ContentValues();
+            for (int i=0; i<movies.size(); i++) {
+                Movie movie = movies.get(i);
+                values.clear();
+                values.put(ListEntry.COLUMN_LIST_KEY, listKey);
+                values.put(ListEntry.COLUMN_POSITION, i);
+                values.put(ListEntry.COLUMN_MOVIE_ID, movie.getMovieId());
+                values.put(ListEntry.COLUMN_TITLE, movie.getTitle());
+                values.put(ListEntry.COLUMN_POSTER_PATH, movie.getPosterPath());
+                values.put(ListEntry.COLUMN_SYNOPSIS, movie.getSynopsis());
+                values.put(ListEntry.COLUMN_RELEASE_DATE, movie.getReleaseDate());
+                values.put(ListEntry.COLUMN_RATING, movie.getRating());
+                db.insert(ListEntry.TABLE_NAME, null, values);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Shows the persisted copy of a list straight away and then refreshes it from the network,
+     * persisting and returning the fresh copy only if it differs.
+     * @param listKey the key of the list
+     * @param source the paged source to refresh the list's first page from
+     * @param online whether there is a network connection to refresh over
+     * @param callback notified with the persisted copy before the refresh starts, may be null
+     * @return the fresh copy if it differs from the persisted one, otherwise the persisted copy
+     */
+    public List<Movie> loadList(String listKey, PagedMovieSource source, boolean online,
+                                Callback callback) {
+        List<Movie> cached = getList(listKey);
+        if (!cached.isEmpty() && callback != null) {
+            callback.onCachedList(cached);
+        }
+
+        if (!online || !source.loadFirstPage()) {
+            // Stale data is better than an empty grid
+            return cached;
+        }
+
+        List<Movie> fresh = source.getMovies();
+        if (fresh.equals(cached)) {
+            // Nothing changed; hand back the copy that is already on screen
+            return cached;
+        }
+        saveList(listKey, fresh);
+        return fresh;
+    }
+
+    private static Movie movieFromCursor(Cursor cursor) {
+        return new Movie(
+                cursor.getString(COL_MOVIE_ID),
+                cursor.getString(COL_TITLE),
+                cursor.getString(COL_POSTER_PATH),
+                cursor.getString(COL_SYNOPSIS),
+                cursor.getString(COL_RELEASE_DATE),
+                cursor.getDouble(COL_RATING));
+    }
+
+    /**
+     * Callback used to receive the persisted copy of a list before it is refreshed
+     */
+    public interface Callback {
+        void onCachedList(List<Movie> movies);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.android.popularmovies;
+
+import android.content.Context;
+import android.support.v4.content.AsyncTaskLoader;
+
+/**
+ * Loader class used to resolve the Movie shown on the details screen when it isn't in memory,
+ * such as after the process was restarted, by reading it back from the local databases in the
+ * background.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class MovieResolveLoader extends AsyncTaskLoader<Movie> {
+
+    private final String mMovieId;
+    private Movie mResult;
+
+    /**
+     * Constructor
+     * @param context the activity utilizing the loader
+     * @param movieId the ID of the Movie to resolve
+     */
+    public MovieResolveLoader(Context context, String movieId) {
+        super(context);
+        mMovieId = movieId;
+    }
+
+    @Override
+    protected void onStartLoading() {
+        if (mResult != null) {
+            deliverResult(mResult);
+        } else {
+            forceLoad();
+        }
+    }
+
+    @Override
+    public void deliverResult(Movie data) {
+        mResult = data;
+        super.deliverResult(data);
+    }
+
+    @Override
+    public Movie loadInBackground() {
+        return MovieRegistry.resolve(getContext(), mMovieId);
+    }
+}
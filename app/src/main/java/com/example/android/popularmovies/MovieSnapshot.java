@@ -0,0 +1,283 @@
+package com.example.android.popularmovies;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compact binary snapshot of the last Movie grid shown for a list, used to paint the poster grid
+ * on cold start before any network or database work. Snapshots are memory-mapped when read and each
+ * Movie is only decoded the first time it is asked for.
+ *
+ * The file layout is a header (magic, version, count), a table of record offsets, then one record
+ * per Movie: the ID, title, poster path and synopsis as length-prefixed UTF-8 (a length of -1
+ * meaning null) followed by the packed release date as an int and the rating as a double. The
+ * synopsis is handed to the Movie still encoded.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class MovieSnapshot {
+
+    private static final String LOG_TAG = MovieSnapshot.class.getSimpleName();
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // "PMSN", followed by the layout version; bump the version whenever the layout changes
+    private static final int MAGIC = 0x504D534E;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 12;
+
+    // The most Movies kept in a snapshot, enough to fill the first screens of the grid
+    public static final int MAX_MOVIES = 60;
+
+    // Private constructor, this class only holds static methods
+    private MovieSnapshot() {
+    }
+
+    /**
+     * @param context any context
+     * @param listKey the key of a persisted list, see {@link MovieRepository#listKeyFor(String)}
+     * @return the file the snapshot of the list is kept in
+     */
+    public static File fileFor(Context context, String listKey) {
+        return new File(new File(context.getCacheDir(), "snapshots"), listKey + ".snap");
+    }
+
+    /**
+     * Maps a snapshot into memory. The header, the offset table and the bounds of every record
+     * are checked here, so a truncated or corrupt snapshot is rejected as a whole; the Movies are
+     * decoded as they are accessed.
+     * @param file the snapshot file
+     * @return the Movies in the snapshot, or an empty list if there is no valid snapshot
+     */
+    public static List<Movie> read(File file) {
+        if (!file.isFile()) {
+            return Collections.emptyList();
+        }
+        RandomAccessFile randomAccessFile = null;
+        try {
+            randomAccessFile = new RandomAccessFile(file, "r");
+            FileChannel channel = randomAccessFile.getChannel();
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC
+                    || buffer.getInt() != VERSION) {
+                return Collections.emptyList();
+            }
+            int count = buffer.getInt();
+            if (count < 0 || count > (buffer.remaining() / 4)) {
+                return Collections.emptyList();
+            }
+            int[] offsets = new int[count];
+            for (int i=0; i<count; i++) {
+                offsets[i] = buffer.getInt();
+                if (offsets[i] < buffer.position() || offsets[i] >= buffer.limit()) {
+                    return Collections.emptyList();
+                }
+            }
+            for (int offset : offsets) {
+                if (!isValidRecord(buffer, offset)) {
+                    return Collections.emptyList();
+                }
+            }
+            return new SnapshotList(buffer, offsets);
+        } catch (IOException | BufferUnderflowException e) {
+            Log.e(LOG_TAG, "Problem reading the movie snapshot " + file, e);
+            return Collections.emptyList();
+        } finally {
+            closeQuietly(randomAccessFile);
+        }
+    }
+
+    /**
+     * Replaces a snapshot with a new list of Movies. The snapshot is written to a temporary file
+     * first so a reader never sees a partially written one. Should not be called on the main
+     * thread.
+     * @param file the snapshot file
+     * @param movies the Movies to store
+     */
+    public static void write(File file, List<Movie> movies) {
+        int count = movies.size();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER_SIZE + count * 256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            // Encode the records first so the offset table can be written ahead of them
+            int[] offsets = new int[count];
+            ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(count * 256);
+            DataOutputStream records = new DataOutputStream(recordBytes);
+            int recordsStart = HEADER_SIZE + count * 4;
+            for (int i=0; i<count; i++) {
+                Movie movie = movies.get(i);
+                offsets[i] = recordsStart + records.size();
+                writeString(records, movie.getMovieId());
+                writeString(records, movie.getTitle());
+                writeString(records, movie.getPosterPath());
+                writeBytes(records, movie.getSynopsisBytes());
+                records.writeInt(movie.getPackedReleaseDate());
+                records.writeDouble(movie.getRating());
+            }
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(count);
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+            recordBytes.writeTo(out);
+            out.flush();
+        } catch (IOException e) {
+            // Writing to memory can't really fail
+            Log.e(LOG_TAG, "Problem encoding the movie snapshot", e);
+            return;
+        }
+
+        File directory = file.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            Log.e(LOG_TAG, "Unable to create the snapshot directory " + directory);
+            return;
+        }
+        // Each write gets its own temporary file, since the sync job and the UI can both replace
+        // the same snapshot at once
+        File tempFile = null;
+        FileOutputStream fileOut = null;
+        try {
+            tempFile = File.createTempFile(file.getName(), ".tmp", directory);
+            fileOut = new FileOutputStream(tempFile);
+            bytes.writeTo(fileOut);
+            fileOut.getFD().sync();
+            fileOut.close();
+            fileOut = null;
+            if (!tempFile.renameTo(file)) {
+                Log.e(LOG_TAG, "Unable to replace the movie snapshot " + file);
+                tempFile.delete();
+            }
+        } catch (IOException e) {
+            Log.e(LOG_TAG, "Problem writing the movie snapshot " + file, e);
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        } finally {
+            closeQuietly(fileOut);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value != null ? value.getBytes(UTF_8) : null);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] encoded = readBytes(buffer);
+        return encoded != null ? new String(encoded, UTF_8) : null;
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Checks that a record lies entirely within the snapshot, without decoding it
+     * @param buffer the mapped snapshot
+     * @param offset where the record starts
+     * @return true if the record's fields are all within the buffer
+     */
+    private static boolean isValidRecord(ByteBuffer buffer, int offset) {
+        int position = offset;
+        // The ID, title, poster path and synopsis
+        for (int i=0; i<4; i++) {
+            if (buffer.limit() - position < 4) {
+                return false;
+            }
+            int length = buffer.getInt(position);
+            position += 4;
+            if (length < -1 || length > buffer.limit() - position) {
+                return false;
+            }
+            position += Math.max(0, length);
+        }
+        // The release date and the rating
+        return buffer.limit() - position >= 12;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                // Nothing useful can be done about a failed close
+            }
+        }
+    }
+
+    /**
+     * Read-only list over a mapped snapshot that decodes each Movie the first time it is accessed
+     * and then keeps it.
+     */
+    private static final class SnapshotList extends AbstractList<Movie> {
+
+        private final ByteBuffer mBuffer;
+        private final int[] mOffsets;
+        private final Movie[] mDecoded;
+
+        SnapshotList(ByteBuffer buffer, int[] offsets) {
+            mBuffer = buffer;
+            mOffsets = offsets;
+            mDecoded = new Movie[offsets.length];
+        }
+
+        @Override
+        public synchronized Movie get(int index) {
+            Movie movie = mDecoded[index];
+            if (movie == null) {
+                // Each decode gets its own position over the shared mapping
+                ByteBuffer record = mBuffer.duplicate();
+                record.position(mOffsets[index]);
+                movie = MovieCache.intern(new Movie(
+                        readString(record),
+                        readString(record),
+                        readString(record),
+                        readBytes(record),
+                        record.getInt(),
+                        record.getDouble()));
+                mDecoded[index] = movie;
+            }
+            return movie;
+        }
+
+        @Override
+        public int size() {
+            return mOffsets.length;
+        }
+    }
+}
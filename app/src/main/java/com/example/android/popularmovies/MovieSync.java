@@ -0,0 +1,226 @@
+package com.example.android.popularmovies;
+
+import android.annotation.TargetApi;
+import android.app.job.JobInfo;
+import android.app.job.JobScheduler;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.TrafficStats;
+import android.os.Build;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background pre-warm of the local caches. A sync refreshes the popular and top rated lists, every
+ * Favorite and the Favorites' trailers and reviews, so that opening the app is a purely local read.
+ * Syncs are run by {@link MovieSyncJobService} while the device is charging on an unmetered
+ * network.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class MovieSync {
+
+    private static final String LOG_TAG = MovieSync.class.getSimpleName();
+
+    private static final int SYNC_JOB_ID = 1;
+
+    // How often to sync, which is also how long synced responses are served without the network
+    private static final long SYNC_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(6);
+
+    // Where the results of the last sync are recorded, for tuning the schedule
+    private static final String STATS_PREFS = "sync_stats";
+    private static final String KEY_LAST_SYNC_TIME = "last_sync_time";
+    private static final String KEY_LAST_SYNC_DURATION = "last_sync_duration_ms";
+    private static final String KEY_LAST_SYNC_BYTES = "last_sync_bytes";
+    private static final String KEY_LAST_SYNC_SUCCESS = "last_sync_success";
+
+    // Private constructor, this class only holds static methods
+    private MovieSync() {
+    }
+
+    /**
+     * Schedules the periodic sync unless it is already scheduled. JobScheduler is only available
+     * from Lollipop, so on older devices data keeps being fetched on demand.
+     * @param context any context
+     */
+    public static void schedule(Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            scheduleJob(context.getApplicationContext());
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private static void scheduleJob(Context context) {
+        JobScheduler scheduler =
+                (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        for (JobInfo pending : scheduler.getAllPendingJobs()) {
+            if (pending.getId() == SYNC_JOB_ID) {
+                // Rescheduling would push the next run back
+                return;
+            }
+        }
+        JobInfo job = new JobInfo.Builder(SYNC_JOB_ID,
+                new ComponentName(context, MovieSyncJobService.class))
+                .setRequiredNetworkType(JobInfo.NETWORK_TYPE_UNMETERED)
+                .setRequiresCharging(true)
+                .setPeriodic(SYNC_INTERVAL_MILLIS)
+                .setPersisted(true)
+                .build();
+        if (scheduler.schedule(job) != JobScheduler.RESULT_SUCCESS) {
+            Log.e(LOG_TAG, "Unable to schedule the movie sync");
+        }
+    }
+
+    /**
+     * Refreshes every local cache from the network and records how long it took and how many
+     * bytes were transferred. Blocks on the network, so it must be called from a background
+     * thread.
+     * @param context any context
+     * @param cancellation checked between steps so a stopped sync gives up early, may be null
+     * @return true if everything was refreshed
+     */
+    public static boolean sync(Context context, Cancellation cancellation) {
+        Context appContext = context.getApplicationContext();
+        long start = SystemClock.elapsedRealtime();
+        long startBytes = getTransferredBytes();
+
+        // Carry on after a failed step so the other caches are still refreshed
+        boolean success = !isCancelled(cancellation)
+                && syncList(appContext, MovieRepository.LIST_POPULAR);
+        success = !isCancelled(cancellation)
+                && syncList(appContext, MovieRepository.LIST_TOP_RATED) && success;
+        success = !isCancelled(cancellation)
+                && syncFavorites(appContext, cancellation) && success;
+
+        long duration = SystemClock.elapsedRealtime() - start;
+        long endBytes = getTransferredBytes();
+        long bytes = startBytes >= 0 && endBytes >= 0 ? endBytes - startBytes : -1;
+
+        getStats(appContext).edit()
+                .putLong(KEY_LAST_SYNC_TIME, System.currentTimeMillis())
+                .putLong(KEY_LAST_SYNC_DURATION, duration)
+                .putLong(KEY_LAST_SYNC_BYTES, bytes)
+                .putBoolean(KEY_LAST_SYNC_SUCCESS, success)
+                .apply();
+        Log.i(LOG_TAG, "Sync " + (success ? "finished" : "failed") + " in " + duration + " ms, "
+                + (bytes >= 0 ? bytes + " bytes transferred" : "bytes transferred unknown"));
+        return success;
+    }
+
+    /**
+     * Refreshes the stored copy and snapshot of the first page of a list
+     * @param context the application context
+     * @param listKey the key of the list
+     * @return true if the list was refreshed
+     */
+    private static boolean syncList(Context context, String listKey) {
+        String url = MovieRepository.urlFor(listKey);
+        // The grid refreshes the first page when it opens; let that be answered from disk
+        List<String> pinnedUrls = Collections.singletonList(QueryUtils.getMoviePageUrl(url, 1));
+
+        setExpiry(pinnedUrls, 0);
+        PagedMovieSource source = new PagedMovieSource(url);
+        if (!source.loadFirstPage()) {
+            return false;
+        }
+        List<Movie> movies = source.getMovies();
+        MovieRepository.getInstance(context).saveList(listKey, movies);
+        MovieSnapshot.write(MovieSnapshot.fileFor(context, listKey),
+                movies.subList(0, Math.min(movies.size(), MovieSnapshot.MAX_MOVIES)));
+        setExpiry(pinnedUrls, System.currentTimeMillis() + SYNC_INTERVAL_MILLIS);
+        return true;
+    }
+
+    /**
+     * Refreshes the stored copy of every Favorite and warms the response cache with their
+     * trailers and reviews
+     * @param context the application context
+     * @param cancellation checked between Favorites, may be null
+     * @return true if every Favorite was refreshed
+     */
+    private static boolean syncFavorites(Context context, Cancellation cancellation) {
+        Set<String> favoriteIds = Utility.getFavorites(context);
+        if (favoriteIds.isEmpty()) {
+            return true;
+        }
+
+        int parallelism = context.getResources().getInteger(R.integer.favorites_fetch_parallelism);
+        List<Movie> fetched = QueryUtils.fetchFavoritesData(favoriteIds,
+                "https://api.themoviedb.org/3/movie/", parallelism, null);
+        FavoritesStore store = FavoritesStore.getInstance(context);
+        for (Movie movie : fetched) {
+            store.saveFavorite(movie);
+        }
+
+        boolean singleRequest = context.getResources().getBoolean(R.bool.extras_single_request);
+        for (String movieId : favoriteIds) {
+            if (isCancelled(cancellation)) {
+                return false;
+            }
+            List<String> extrasUrls = MovieExtrasLoader.getExtrasUrls(movieId, singleRequest);
+            setExpiry(extrasUrls, 0);
+            MovieExtrasLoader.loadExtras(movieId, singleRequest);
+            setExpiry(extrasUrls, System.currentTimeMillis() + SYNC_INTERVAL_MILLIS);
+        }
+
+        return fetched.size() == favoriteIds.size();
+    }
+
+    /**
+     * Changes how long cached responses stay fresh. Synced responses are kept fresh until the
+     * next sync so reading them doesn't need the network; the sync itself expires them first so
+     * that it revalidates them rather than reading its own copies.
+     * @param urls the URLs of the responses
+     * @param expiry the new expiry time in milliseconds, 0 to expire them now
+     */
+    private static void setExpiry(List<String> urls, long expiry) {
+        DiskResponseCache cache = QueryUtils.getResponseCache();
+        if (cache == null) {
+            return;
+        }
+        for (String url : urls) {
+            DiskResponseCache.Entry entry = cache.get(url);
+            if (entry != null) {
+                cache.put(entry.withExpiry(expiry));
+            }
+        }
+    }
+
+    /**
+     * @return the bytes sent and received by the app so far, or -1 if the device doesn't
+     * report them
+     */
+    private static long getTransferredBytes() {
+        int uid = Process.myUid();
+        long received = TrafficStats.getUidRxBytes(uid);
+        long sent = TrafficStats.getUidTxBytes(uid);
+        if (received == TrafficStats.UNSUPPORTED || sent == TrafficStats.UNSUPPORTED) {
+            return -1;
+        }
+        return received + sent;
+    }
+
+    private static boolean isCancelled(Cancellation cancellation) {
+        return cancellation != null && cancellation.isCancelled();
+    }
+
+    private static SharedPreferences getStats(Context context) {
+        return context.getSharedPreferences(STATS_PREFS, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Used by the caller of a sync to stop it early
+     */
+    public interface Cancellation {
+        boolean isCancelled();
+    }
+}
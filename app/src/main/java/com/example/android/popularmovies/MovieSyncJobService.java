@@ -0,0 +1,52 @@
+package com.example.android.popularmovies;
+
+import android.annotation.TargetApi;
+import android.app.job.JobParameters;
+import android.app.job.JobService;
+import android.os.Build;
+
+/**
+ * JobService that runs a {@link MovieSync} off the main thread when its scheduling constraints are
+ * met. Scheduled by {@link MovieSync#schedule(android.content.Context)}.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@TargetApi(Build.VERSION_CODES.LOLLIPOP)
+public class MovieSyncJobService extends JobService {
+
+    // Set when the system stops the job, such as when the device is unplugged
+    private volatile boolean mStopped;
+
+    @Override
+    public boolean onStartJob(final JobParameters params) {
+        mStopped = false;
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                boolean success = MovieSync.sync(MovieSyncJobService.this,
+                        new MovieSync.Cancellation() {
+                            @Override
+                            public boolean isCancelled() {
+                                return mStopped;
+                            }
+                        });
+                if (!mStopped) {
+                    // Retry with backoff if anything failed to refresh
+                    jobFinished(params, !success);
+                }
+            }
+        }, "movie-sync").start();
+
+        // The work continues on the sync thread
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        mStopped = true;
+        // Try again once the constraints are met again
+        return true;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.android.popularmovies;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Headers;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * {@link HttpTransport} backed by OkHttp. Requests to the same host share a single HTTP/2
+ * connection when the server supports it, falling back to pooled HTTP/1.1 keep-alive connections
+ * otherwise. OkHttp transparently requests and decompresses gzip bodies.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class OkHttpTransport implements HttpTransport {
+
+    private static final int READ_TIMEOUT_MS = 10000;
+    private static final int CONNECT_TIMEOUT_MS = 15000;
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+
+    private final OkHttpClient mClient;
+
+    /**
+     * Constructor
+     */
+    public OkHttpTransport() {
+        mClient = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES,
+                        TimeUnit.MINUTES))
+                .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .readTimeout(READ_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .connectTimeout(CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Override
+    public TransportResponse execute(URL url, Map<String, String> requestHeaders)
+            throws IOException {
+
+        Request.Builder builder = new Request.Builder().url(url).get();
+        for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+
+        Response response = mClient.newCall(builder.build()).execute();
+
+        Map<String, String> headers = new HashMap<>();
+        Headers responseHeaders = response.headers();
+        for (int i=0; i<responseHeaders.size(); i++) {
+            headers.put(responseHeaders.name(i), responseHeaders.value(i));
+        }
+
+        final ResponseBody body = response.body();
+
+        // Closing the OkHttp response releases its stream (or connection) for reuse
+        return new TransportResponse(response.code(), headers, body.byteStream(),
+                body.contentLength(), new Closeable() {
+                    @Override
+                    public void close() {
+                        body.close();
+                    }
+                });
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.android.popularmovies;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Paged data source for the popular and top rated lists. Pages are fetched one at a time as the
+ * user scrolls, and only a bounded window of consecutive pages is kept in memory: loading a page
+ * past either end of the window drops the page at the opposite end, so memory stays flat no matter
+ * how far the user scrolls.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class PagedMovieSource {
+
+    // Maximum number of pages to keep in memory at once
+    private static final int MAX_PAGES_IN_MEMORY = 5;
+
+    private final String mUrl;
+    private final LinkedList<MoviePage> mPages = new LinkedList<>();
+
+    // The number of movies on the pages that have been dropped from the front of the window
+    private int mOffset;
+
+    /**
+     * Constructor
+     * @param url the list URL to request pages from
+     */
+    public PagedMovieSource(String url) {
+        mUrl = url;
+    }
+
+    /**
+     * Fetches the first page, replacing anything already loaded. Like the other load methods this
+     * blocks on the network, so it must be called from a background thread.
+     * @return true if the page was loaded
+     */
+    public boolean loadFirstPage() {
+        MoviePage page = QueryUtils.fetchMoviePage(mUrl, 1);
+        if (page == null) {
+            return false;
+        }
+        synchronized (this) {
+            mPages.clear();
+            mPages.add(page);
+            mOffset = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Fetches the page after the window, dropping the first page if the window is full
+     * @return true if a page was loaded
+     */
+    public boolean loadNextPage() {
+        int pageNumber;
+        synchronized (this) {
+            if (!hasNextPage()) {
+                return false;
+            }
+            pageNumber = mPages.getLast().getPage() + 1;
+        }
+
+        // Fetch without holding the lock so the UI can keep querying the window meanwhile
+        MoviePage page = QueryUtils.fetchMoviePage(mUrl, pageNumber);
+        if (page == null) {
+            return false;
+        }
+        synchronized (this) {
+            mPages.addLast(page);
+            if (mPages.size() > MAX_PAGES_IN_MEMORY) {
+                mOffset += mPages.removeFirst().getMovies().size();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Fetches the page before the window, dropping the last page if the window is full
+     * @return true if a page was loaded
+     */
+    public boolean loadPreviousPage() {
+        int pageNumber;
+        synchronized (this) {
+            if (!hasPreviousPage()) {
+                return false;
+            }
+            pageNumber = mPages.getFirst().getPage() - 1;
+        }
+
+        // Fetch without holding the lock so the UI can keep querying the window meanwhile
+        MoviePage page = QueryUtils.fetchMoviePage(mUrl, pageNumber);
+        if (page == null) {
+            return false;
+        }
+        synchronized (this) {
+            mPages.addFirst(page);
+            mOffset = Math.max(0, mOffset - page.getMovies().size());
+            if (mPages.size() > MAX_PAGES_IN_MEMORY) {
+                mPages.removeLast();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if there are more pages after the window
+     */
+    public synchronized boolean hasNextPage() {
+        return !mPages.isEmpty() && mPages.getLast().hasNextPage();
+    }
+
+    /**
+     * @return true if pages have been dropped from the front of the window
+     */
+    public synchronized boolean hasPreviousPage() {
+        return !mPages.isEmpty() && mPages.getFirst().getPage() > 1;
+    }
+
+    /**
+     * @return the position in the full list of the first movie in the window
+     */
+    public synchronized int getOffset() {
+        return mOffset;
+    }
+
+    /**
+     * @return the movies on all of the pages in the window, in order
+     */
+    public synchronized List<Movie> getMovies() {
+        List<Movie> movies = new ArrayList<>();
+        for (MoviePage page : mPages) {
+            movies.addAll(page.getMovies());
+        }
+        return movies;
+    }
+}
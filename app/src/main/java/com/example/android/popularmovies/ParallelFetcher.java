@@ -0,0 +1,161 @@
+package com.example.android.popularmovies;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a batch of blocking requests in parallel while never having more than a given number of
+ * them in flight at once. Results are reported to a {@link Listener} as soon as each one completes
+ * and are returned in the same order as the tasks that produced them.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class ParallelFetcher {
+
+    private static final String LOG_TAG = ParallelFetcher.class.getSimpleName();
+
+    // Threads are shared between all batches; each batch bounds its own concurrency
+    private static final ExecutorService sExecutor = Executors.newCachedThreadPool(
+            new ThreadFactory() {
+                private final AtomicInteger mCount = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "ParallelFetcher #" + mCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    /**
+     * Callback used to receive each result as soon as it is available
+     * @param <T> the type of result
+     */
+    public interface Listener<T> {
+        /**
+         * Called on the fetching thread each time a task completes successfully
+         * @param index the position of the task in the original list
+         * @param result the non-null result of the task
+         */
+        void onResult(int index, T result);
+    }
+
+    /**
+     * A private constructor is used because a {@link ParallelFetcher} object should never be created.
+     */
+    private ParallelFetcher() {
+    }
+
+    /**
+     * Runs all of the given tasks, at most {@code width} at a time, and waits for them to finish
+     * @param tasks the tasks to run
+     * @param width the maximum number of tasks to have running at once
+     * @param listener notified as each task completes, may be null
+     * @param <T> the type of result
+     * @return the results in the same order as the tasks, with null for any task that failed
+     */
+    public static <T> List<T> fetchAll(List<? extends Callable<T>> tasks, int width,
+                                       Listener<T> listener) {
+
+        // Pre-fill the results so that they can be placed by index as they arrive
+        List<T> results = new ArrayList<>(tasks.size());
+        for (int i=0; i<tasks.size(); i++) {
+            results.add(null);
+        }
+
+        CompletionService<IndexedResult<T>> completionService =
+                new ExecutorCompletionService<>(sExecutor);
+        List<Future<IndexedResult<T>>> futures = new ArrayList<>(tasks.size());
+        int maxInFlight = Math.max(1, width);
+        int next = 0;
+        int running = 0;
+
+        // Start the first batch of tasks
+        while (next < tasks.size() && running < maxInFlight) {
+            futures.add(completionService.submit(new IndexedTask<>(next, tasks.get(next))));
+            next++;
+            running++;
+        }
+
+        try {
+            while (running > 0) {
+                IndexedResult<T> result = completionService.take().get();
+                running--;
+
+                if (result.mValue != null) {
+                    results.set(result.mIndex, result.mValue);
+                    if (listener != null) {
+                        listener.onResult(result.mIndex, result.mValue);
+                    }
+                }
+
+                // Keep the pipeline full by starting the next task as soon as one finishes
+                if (next < tasks.size()) {
+                    futures.add(completionService.submit(new IndexedTask<>(next, tasks.get(next))));
+                    next++;
+                    running++;
+                }
+            }
+        } catch (InterruptedException e) {
+            // Stop waiting, cancel whatever is still queued or running and return what we have
+            for (Future<IndexedResult<T>> future : futures) {
+                future.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // IndexedTask never throws, so this should not happen
+            Log.e(LOG_TAG, "Unexpected failure in parallel fetch", e);
+        }
+
+        return results;
+    }
+
+    /**
+     * Wraps a task so that its result, or its failure, can be matched back to its position
+     */
+    private static class IndexedTask<T> implements Callable<IndexedResult<T>> {
+
+        private final int mIndex;
+        private final Callable<T> mTask;
+
+        IndexedTask(int index, Callable<T> task) {
+            mIndex = index;
+            mTask = task;
+        }
+
+        @Override
+        public IndexedResult<T> call() {
+            T value = null;
+            try {
+                value = mTask.call();
+            } catch (Exception e) {
+                Log.e(LOG_TAG, "Parallel fetch task " + mIndex + " failed", e);
+            }
+            return new IndexedResult<>(mIndex, value);
+        }
+    }
+
+    private static class IndexedResult<T> {
+
+        private final int mIndex;
+        private final T mValue;
+
+        IndexedResult(int index, T value) {
+            mIndex = index;
+            mValue = value;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.android.popularmovies;
+
+import android.app.Application;
+
+import java.io.File;
+
+/**
+ * Application class used to set up the process-wide networking and Favorites state shared by every
+ * Activity, so that it is in place even when the app is restored straight into
+ * {@link DetailActivity}.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class PopularMoviesApplication extends Application {
+
+    // Maximum size of the on-disk HTTP response cache
+    private static final long RESPONSE_CACHE_SIZE = 10 * 1024 * 1024;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        // Apply the preferred HTTP transport and install the response cache in front of it
+        QueryUtils.useTransport(Utility.getPreferredTransport(this));
+        QueryUtils.installResponseCache(new DiskResponseCache(
+                new File(getCacheDir(), "responses"), RESPONSE_CACHE_SIZE));
+
+        // Load the Favorites before any screen is created, so checking them never blocks the UI
+        FavoritesIndex.getInstance(this);
+
+        // Keep the local caches warm so that opening the app rarely needs the network
+        MovieSync.schedule(this);
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        PosterCache.onTrimMemory(level);
+    }
+}
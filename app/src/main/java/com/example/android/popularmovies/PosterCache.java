@@ -0,0 +1,131 @@
+package com.example.android.popularmovies;
+
+import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.util.Log;
+
+import com.squareup.picasso.LruCache;
+import com.squareup.picasso.Picasso;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Cache;
+import okhttp3.OkHttpClient;
+
+/**
+ * The poster cache shared by the grid and the details screen. It is a dedicated {@link Picasso}
+ * instance with two tiers: decoded bitmaps in memory, within a fixed share of the app's heap, and
+ * downloaded posters in an OkHttp disk cache of a fixed size.
+ *
+ * Hits, misses and evictions of both tiers, along with decode times, can be logged with
+ * {@link #logStats()}.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class PosterCache {
+
+    private static final String LOG_TAG = PosterCache.class.getSimpleName();
+
+    // The memory tier gets this fraction of the app's heap, up to a fixed limit
+    private static final int MEMORY_CACHE_HEAP_FRACTION = 8;
+    private static final int MAX_MEMORY_CACHE_MB = 32;
+
+    // Size of the disk tier
+    private static final int DISK_CACHE_MB = 50;
+
+    private static final int READ_TIMEOUT_MS = 10000;
+    private static final int CONNECT_TIMEOUT_MS = 15000;
+
+    private static Picasso sPicasso;
+    private static LruCache sMemoryCache;
+    private static Cache sDiskCache;
+
+    private static final AtomicInteger sDecodeCount = new AtomicInteger();
+    private static final AtomicLong sDecodeNanos = new AtomicLong();
+
+    /**
+     * A private constructor is used because a {@link PosterCache} object should never be created.
+     */
+    private PosterCache() {
+    }
+
+    /**
+     * @param context any context
+     * @return the Picasso instance to load posters with
+     */
+    public static synchronized Picasso getPicasso(Context context) {
+        if (sPicasso == null) {
+            Context appContext = context.getApplicationContext();
+
+            ActivityManager activityManager =
+                    (ActivityManager) appContext.getSystemService(Context.ACTIVITY_SERVICE);
+            int memoryBudgetMb = Math.min(MAX_MEMORY_CACHE_MB,
+                    activityManager.getMemoryClass() / MEMORY_CACHE_HEAP_FRACTION);
+            sMemoryCache = new LruCache(memoryBudgetMb * 1024 * 1024);
+
+            sDiskCache = new Cache(new File(appContext.getCacheDir(), "posters"),
+                    DISK_CACHE_MB * 1024L * 1024L);
+            OkHttpClient client = new OkHttpClient.Builder()
+                    .cache(sDiskCache)
+                    .readTimeout(READ_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                    .connectTimeout(CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                    .build();
+
+            sPicasso = new Picasso.Builder(appContext)
+                    .memoryCache(sMemoryCache)
+                    .addRequestHandler(new PosterRequestHandler(client))
+                    .build();
+        }
+        return sPicasso;
+    }
+
+    /**
+     * Records the time taken to decode a poster. Called by {@link PosterRequestHandler}.
+     * @param nanos the decode time in nanoseconds
+     */
+    static void recordDecode(long nanos) {
+        sDecodeCount.incrementAndGet();
+        sDecodeNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Releases memory when the system asks the app to. Decoded posters are dropped once the app is
+     * in the background, since they are quick to decode again from the disk tier.
+     * @param level the level passed to {@link ComponentCallbacks2#onTrimMemory(int)}
+     */
+    public static synchronized void onTrimMemory(int level) {
+        if (sMemoryCache == null) {
+            return;
+        }
+        logStats();
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+            sMemoryCache.evictAll();
+        }
+    }
+
+    /**
+     * Logs the hits, misses and evictions of both tiers, and the decode times
+     */
+    public static synchronized void logStats() {
+        if (sMemoryCache == null || !Log.isLoggable(LOG_TAG, Log.DEBUG)) {
+            return;
+        }
+        int decodeCount = sDecodeCount.get();
+        long averageDecodeMicros = decodeCount > 0
+                ? TimeUnit.NANOSECONDS.toMicros(sDecodeNanos.get()) / decodeCount : 0;
+        Log.d(LOG_TAG, String.format(Locale.US, "PosterCache[memory hits=%d, misses=%d, "
+                        + "evictions=%d, size=%dKB/%dKB; disk hits=%d, network=%d, requests=%d, "
+                        + "maxSize=%dMB; decodes=%d, averageDecode=%dus]",
+                sMemoryCache.hitCount(), sMemoryCache.missCount(), sMemoryCache.evictionCount(),
+                sMemoryCache.size() / 1024, sMemoryCache.maxSize() / 1024,
+                sDiskCache.hitCount(), sDiskCache.networkCount(), sDiskCache.requestCount(),
+                DISK_CACHE_MB, decodeCount, averageDecodeMicros));
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.android.popularmovies;
+
+import android.support.v7.widget.GridLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.util.Log;
+import android.util.SparseArray;
+
+import com.squareup.picasso.Callback;
+import com.squareup.picasso.Picasso;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Warms Picasso's cache with the posters of the rows the user is scrolling towards, so they are
+ * ready by the time their cells are bound. The number of rows fetched ahead grows with the scroll
+ * speed. Prefetches run at low priority, are cancelled once their rows are no longer ahead of the
+ * visible range, and are taken over at high priority when their cells come on screen. When Movies
+ * are inserted, removed or moved, the rows from there on no longer hold the posters they were
+ * fetching, so their prefetches are cancelled; appending a page leaves the earlier rows alone.
+ *
+ * At the end of every scroll the share of bound posters that had already been prefetched is
+ * logged.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class PosterPrefetcher extends RecyclerView.OnScrollListener {
+
+    private static final String LOG_TAG = PosterPrefetcher.class.getSimpleName();
+
+    // Rows always prefetched ahead, and the most extra rows added for fast scrolls
+    private static final int MIN_ROWS_AHEAD = 2;
+    private static final int MAX_EXTRA_ROWS_AHEAD = 6;
+    // Prefetch as far as the current scroll speed would travel in this many scroll events
+    private static final int VELOCITY_LOOKAHEAD_EVENTS = 8;
+
+    // Stop remembering prefetched posters past this many, so the sets stay small
+    private static final int MAX_TRACKED_POSTERS = 500;
+
+    private final MovieAdapter mAdapter;
+    private final GridLayoutManager mLayoutManager;
+    private final Picasso mPicasso;
+
+    // The tag of each row currently being prefetched, so a row can be cancelled on its own
+    private final SparseArray<Object> mRowTags = new SparseArray<>();
+    // Posters that were prefetched, and those of them that are already cached
+    private final Set<String> mRequested = new HashSet<>();
+    private final Set<String> mCached = new HashSet<>();
+
+    // Bound posters during the current scroll: already cached, still loading, or never prefetched
+    private int mHits;
+    private int mLate;
+    private int mMisses;
+    private boolean mScrolling;
+
+    /**
+     * Constructor
+     * @param adapter the adapter of the grid, used to build requests matching its own
+     * @param layoutManager the layout manager of the grid
+     */
+    public PosterPrefetcher(MovieAdapter adapter, GridLayoutManager layoutManager) {
+        mAdapter = adapter;
+        mLayoutManager = layoutManager;
+        mPicasso = adapter.getPicasso();
+        adapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onChanged() {
+                // The whole list was replaced
+                cancelAll();
+            }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                cancelFrom(positionStart);
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                cancelFrom(positionStart);
+            }
+
+            @Override
+            public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+                cancelFrom(Math.min(fromPosition, toPosition));
+            }
+        });
+    }
+
+    @Override
+    public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+        if (newState != RecyclerView.SCROLL_STATE_IDLE) {
+            mScrolling = true;
+            return;
+        }
+        mScrolling = false;
+        reportScroll();
+    }
+
+    @Override
+    public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+        int itemCount = mAdapter.getItemCount();
+        int firstVisible = mLayoutManager.findFirstVisibleItemPosition();
+        int lastVisible = mLayoutManager.findLastVisibleItemPosition();
+        if (itemCount == 0 || firstVisible == RecyclerView.NO_POSITION) {
+            return;
+        }
+
+        // Work out how many rows ahead to fetch from how fast the grid is moving
+        int spanCount = mLayoutManager.getSpanCount();
+        int rowHeight = recyclerView.getChildCount() > 0
+                ? Math.max(1, recyclerView.getChildAt(0).getHeight()) : 1;
+        int extraRows = Math.min(MAX_EXTRA_ROWS_AHEAD,
+                Math.abs(dy) * VELOCITY_LOOKAHEAD_EVENTS / rowHeight);
+        int rowsAhead = MIN_ROWS_AHEAD + extraRows;
+
+        int lastRow = (itemCount - 1) / spanCount;
+        int firstTargetRow;
+        int lastTargetRow;
+        if (dy >= 0) {
+            firstTargetRow = lastVisible / spanCount + 1;
+            lastTargetRow = Math.min(lastRow, firstTargetRow + rowsAhead - 1);
+        } else {
+            lastTargetRow = firstVisible / spanCount - 1;
+            firstTargetRow = Math.max(0, lastTargetRow - rowsAhead + 1);
+        }
+
+        // Cancel the rows that are no longer ahead. Rows that came on screen are left alone;
+        // binding their cells takes the requests over at high priority.
+        int firstVisibleRow = firstVisible / spanCount;
+        int lastVisibleRow = lastVisible / spanCount;
+        for (int i=mRowTags.size()-1; i>=0; i--) {
+            int row = mRowTags.keyAt(i);
+            boolean visible = row >= firstVisibleRow && row <= lastVisibleRow;
+            boolean ahead = row >= firstTargetRow && row <= lastTargetRow;
+            if (!ahead) {
+                if (!visible) {
+                    mPicasso.cancelTag(mRowTags.valueAt(i));
+                }
+                mRowTags.removeAt(i);
+            }
+        }
+
+        for (int row=firstTargetRow; row<=lastTargetRow; row++) {
+            if (mRowTags.get(row) == null) {
+                prefetchRow(row, spanCount, itemCount);
+            }
+        }
+    }
+
+    private void prefetchRow(int row, int spanCount, int itemCount) {
+        Object tag = new Object();
+        mRowTags.put(row, tag);
+        if (mRequested.size() > MAX_TRACKED_POSTERS) {
+            mRequested.clear();
+            mCached.clear();
+        }
+
+        int end = Math.min(itemCount, (row + 1) * spanCount);
+        for (int position=row*spanCount; position<end; position++) {
+            final String url = mAdapter.getPosterUrl(mAdapter.getItem(position));
+            if (url == null || mCached.contains(url)) {
+                continue;
+            }
+            mRequested.add(url);
+            mAdapter.createPosterRequest(url)
+                    .priority(Picasso.Priority.LOW)
+                    .tag(tag)
+                    .fetch(new Callback() {
+                        @Override
+                        public void onSuccess() {
+                            mCached.add(url);
+                            PosterUrlResolver.markLoaded(url);
+                        }
+
+                        @Override
+                        public void onError() {
+                            mRequested.remove(url);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Records whether a poster being bound was prefetched. Called by the adapter.
+     * @param url the URL of the poster
+     */
+    void onPosterBound(String url) {
+        if (!mScrolling || url == null) {
+            return;
+        }
+        if (mCached.contains(url)) {
+            mHits++;
+        } else if (mRequested.contains(url)) {
+            mLate++;
+        } else {
+            mMisses++;
+        }
+    }
+
+    private void reportScroll() {
+        int bound = mHits + mLate + mMisses;
+        if (bound > 0 && Log.isLoggable(LOG_TAG, Log.DEBUG)) {
+            Log.d(LOG_TAG, "Scroll bound " + bound + " posters: " + mHits + " prefetched ("
+                    + (mHits * 100 / bound) + "% hit rate), " + mLate + " still loading, "
+                    + mMisses + " not prefetched");
+        }
+        mHits = 0;
+        mLate = 0;
+        mMisses = 0;
+        PosterCache.logStats();
+    }
+
+    /**
+     * Cancels the prefetches of the rows from the one holding a position onwards, whose Movies
+     * have shifted
+     * @param position the first position that changed
+     */
+    private void cancelFrom(int position) {
+        int firstRow = position / mLayoutManager.getSpanCount();
+        for (int i=mRowTags.size()-1; i>=0; i--) {
+            if (mRowTags.keyAt(i) >= firstRow) {
+                mPicasso.cancelTag(mRowTags.valueAt(i));
+                mRowTags.removeAt(i);
+            }
+        }
+    }
+
+    /**
+     * Cancels every prefetch in flight, such as when the grid is destroyed or its Movies are
+     * replaced. The next scroll prefetches the rows ahead again.
+     */
+    public void cancelAll() {
+        for (int i=0; i<mRowTags.size(); i++) {
+            mPicasso.cancelTag(mRowTags.valueAt(i));
+        }
+        mRowTags.clear();
+    }
+}
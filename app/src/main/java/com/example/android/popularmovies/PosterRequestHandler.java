@@ -0,0 +1,125 @@
+package com.example.android.popularmovies;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import com.squareup.picasso.NetworkPolicy;
+import com.squareup.picasso.Picasso;
+import com.squareup.picasso.Request;
+import com.squareup.picasso.RequestHandler;
+
+import java.io.IOException;
+
+import okhttp3.CacheControl;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Picasso {@link RequestHandler} that downloads posters through an OkHttp client with its own disk
+ * cache, and decodes them straight at the size they are shown at. Decodes are timed for
+ * {@link PosterCache}.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+class PosterRequestHandler extends RequestHandler {
+
+    // Size of the scratch buffer BitmapFactory decodes through
+    private static final int DECODE_BUFFER_SIZE = 16 * 1024;
+
+    // Each Picasso thread reuses one decode buffer rather than allocating one per poster
+    private static final ThreadLocal<byte[]> sDecodeBuffer = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[DECODE_BUFFER_SIZE];
+        }
+    };
+
+    private final OkHttpClient mClient;
+
+    /**
+     * Constructor
+     * @param client the client to download posters with, with the poster disk cache installed
+     */
+    PosterRequestHandler(OkHttpClient client) {
+        mClient = client;
+    }
+
+    @Override
+    public boolean canHandleRequest(Request data) {
+        String scheme = data.uri != null ? data.uri.getScheme() : null;
+        return "http".equals(scheme) || "https".equals(scheme);
+    }
+
+    @Override
+    public Result load(Request request, int networkPolicy) throws IOException {
+        okhttp3.Request.Builder builder = new okhttp3.Request.Builder()
+                .url(request.uri.toString());
+        if (NetworkPolicy.isOfflineOnly(networkPolicy)) {
+            builder.cacheControl(CacheControl.FORCE_CACHE);
+        } else if (networkPolicy != 0) {
+            CacheControl.Builder cacheControl = new CacheControl.Builder();
+            if (!NetworkPolicy.shouldReadFromDiskCache(networkPolicy)) {
+                cacheControl.noCache();
+            }
+            if (!NetworkPolicy.shouldWriteToDiskCache(networkPolicy)) {
+                cacheControl.noStore();
+            }
+            builder.cacheControl(cacheControl.build());
+        }
+
+        Response response = mClient.newCall(builder.build()).execute();
+        ResponseBody body = response.body();
+        byte[] bytes;
+        try {
+            if (!response.isSuccessful()) {
+                throw new IOException("HTTP " + response.code() + " loading " + request.uri);
+            }
+            bytes = body.bytes();
+        } finally {
+            body.close();
+        }
+
+        Bitmap bitmap = decode(bytes, request);
+        if (bitmap == null) {
+            throw new IOException("Could not decode " + request.uri);
+        }
+        Picasso.LoadedFrom loadedFrom = response.networkResponse() == null
+                ? Picasso.LoadedFrom.DISK : Picasso.LoadedFrom.NETWORK;
+        return new Result(bitmap, loadedFrom);
+    }
+
+    /**
+     * Decodes a poster, subsampled to the smallest power of two that still covers the requested
+     * size. Posters have no transparency, so they are decoded as RGB_565 unless asked otherwise.
+     */
+    private static Bitmap decode(byte[] bytes, Request request) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inPreferredConfig = request.config != null ? request.config : Bitmap.Config.RGB_565;
+        options.inTempStorage = sDecodeBuffer.get();
+
+        if (request.hasSize()) {
+            options.inJustDecodeBounds = true;
+            BitmapFactory.decodeByteArray(bytes, 0, bytes.length, options);
+            options.inSampleSize = getSampleSize(options.outWidth, options.outHeight,
+                    request.targetWidth, request.targetHeight);
+            options.inJustDecodeBounds = false;
+        }
+
+        long start = System.nanoTime();
+        Bitmap bitmap = BitmapFactory.decodeByteArray(bytes, 0, bytes.length, options);
+        PosterCache.recordDecode(System.nanoTime() - start);
+        return bitmap;
+    }
+
+    private static int getSampleSize(int width, int height, int targetWidth, int targetHeight) {
+        int sampleSize = 1;
+        while (width / (sampleSize * 2) >= targetWidth
+                && height / (sampleSize * 2) >= targetHeight) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.android.popularmovies;
+
+import android.util.LruCache;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Picks which of TheMovieDB's poster sizes to download for a view. TMDB sizes are widths in
+ * pixels, so the smallest size at least as wide as the view is chosen, from the view's size in
+ * pixels on the current screen.
+ *
+ * The sizes already loaded for each poster during this session are remembered. When a larger size
+ * of a poster is already cached, such as the details screen's after going back to the grid, it is
+ * used instead of downloading a smaller one.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class PosterUrlResolver {
+
+    // The sizes to choose from, smallest first, and their widths in pixels. The largest is for
+    // grid cells wider than 500 pixels, such as on xxxhdpi screens with few columns.
+    private static final String[] SIZE_BUCKETS = {Movie.POSTER_SIZE_W92, Movie.POSTER_SIZE_W154,
+            Movie.POSTER_SIZE_W185, Movie.POSTER_SIZE_W342, Movie.POSTER_SIZE_W500,
+            Movie.POSTER_SIZE_W780};
+    private static final int[] BUCKET_WIDTHS = {92, 154, 185, 342, 500, 780};
+
+    // The size used when the width of the view isn't known yet
+    private static final int DEFAULT_BUCKET_INDEX = 2;
+
+    // Maximum number of posters whose loaded sizes are remembered
+    private static final int MAX_ENTRIES = 500;
+
+    // Poster path -> bit mask of the size buckets loaded for it, by index in SIZE_BUCKETS
+    private static final LruCache<String, Integer> sLoadedBuckets = new LruCache<>(MAX_ENTRIES);
+
+    /**
+     * A private constructor is used because a {@link PosterUrlResolver} object should never be
+     * created.
+     */
+    private PosterUrlResolver() {
+    }
+
+    /**
+     * @param movie the Movie whose poster to show, may have no poster
+     * @param targetWidth the width of the view in pixels, or 0 if it isn't known
+     * @return the URL of the poster to load, or null if the Movie has no poster
+     */
+    public static String resolve(Movie movie, int targetWidth) {
+        String path = movie.getPosterPath();
+        if (path == null) {
+            return null;
+        }
+        int needed = bucketIndexFor(targetWidth);
+        int loaded = getLoadedBuckets(path);
+        // Prefer the smallest size that is both large enough and already cached
+        for (int i=needed; i<SIZE_BUCKETS.length; i++) {
+            if ((loaded & (1 << i)) != 0) {
+                return movie.getPosterUrl(SIZE_BUCKETS[i]);
+            }
+        }
+        return movie.getPosterUrl(SIZE_BUCKETS[needed]);
+    }
+
+    /**
+     * @param movie the Movie whose poster to show, may have no poster
+     * @param targetWidth the width of the view in pixels
+     * @return the URL of the largest size of the poster that is cached but smaller than the view
+     * needs, which can be shown while the right size loads, or null if there is none
+     */
+    public static String resolveCachedPreview(Movie movie, int targetWidth) {
+        String path = movie.getPosterPath();
+        if (path == null) {
+            return null;
+        }
+        int loaded = getLoadedBuckets(path);
+        for (int i=bucketIndexFor(targetWidth)-1; i>=0; i--) {
+            if ((loaded & (1 << i)) != 0) {
+                return movie.getPosterUrl(SIZE_BUCKETS[i]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Remembers that a poster URL was loaded successfully, so it can be reused
+     * @param posterUrl the URL of the poster, may be null
+     */
+    public static void markLoaded(String posterUrl) {
+        String path = Movie.toPosterPath(posterUrl);
+        String bucket = Movie.toSizeBucket(posterUrl);
+        if (path == null || bucket == null) {
+            return;
+        }
+        for (int i=0; i<SIZE_BUCKETS.length; i++) {
+            if (SIZE_BUCKETS[i].equals(bucket)) {
+                synchronized (sLoadedBuckets) {
+                    sLoadedBuckets.put(path, getLoadedBuckets(path) | (1 << i));
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Works out the width a view will be drawn at, even before it has been laid out
+     * @param view the view
+     * @return the width of the view in pixels, or 0 if it isn't known yet
+     */
+    public static int getTargetWidth(View view) {
+        if (view.getWidth() > 0) {
+            return view.getWidth();
+        }
+        ViewGroup.LayoutParams params = view.getLayoutParams();
+        return params != null && params.width > 0 ? params.width : 0;
+    }
+
+    private static int getLoadedBuckets(String path) {
+        Integer loaded = sLoadedBuckets.get(path);
+        return loaded != null ? loaded : 0;
+    }
+
+    /**
+     * @param targetWidth a width in pixels, or 0 if it isn't known
+     * @return the index of the smallest size at least that wide, or of the largest size
+     */
+    private static int bucketIndexFor(int targetWidth) {
+        if (targetWidth <= 0) {
+            return DEFAULT_BUCKET_INDEX;
+        }
+        for (int i=0; i<BUCKET_WIDTHS.length; i++) {
+            if (BUCKET_WIDTHS[i] >= targetWidth) {
+                return i;
+            }
+        }
+        return BUCKET_WIDTHS.length - 1;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.android.popularmovies;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.text.Layout;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.util.AttributeSet;
+import android.view.View;
+
+/**
+ * Lightweight view that draws long, plain body text, such as a synopsis or a review, from a
+ * {@link Layout} in the {@link TextLayoutCache}. When the text was prepared in the background for
+ * the width the view ends up with, measuring it is only a lookup.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class PrecomputedTextView extends View {
+
+    private final TextPaint mPaint;
+    private CharSequence mText;
+    private Layout mLayout;
+
+    public PrecomputedTextView(Context context) {
+        this(context, null);
+    }
+
+    public PrecomputedTextView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public PrecomputedTextView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        mPaint = createPaint(context);
+    }
+
+    /**
+     * Creates the paint every PrecomputedTextView draws with, so text can be laid out for one
+     * before it exists
+     * @param context a themed context, such as the Activity's
+     * @return a new paint
+     */
+    public static TextPaint createPaint(Context context) {
+        TextPaint paint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        paint.density = context.getResources().getDisplayMetrics().density;
+        paint.setTextSize(context.getResources().getDimension(R.dimen.body_text_size));
+
+        TypedArray a = context.obtainStyledAttributes(
+                new int[] {android.R.attr.textColorSecondary});
+        paint.setColor(a.getColor(0, 0xff757575));
+        a.recycle();
+        return paint;
+    }
+
+    /**
+     * @param text the text to show, may be null
+     */
+    public void setText(CharSequence text) {
+        if (TextUtils.equals(text, mText)) {
+            return;
+        }
+        mText = text;
+        mLayout = null;
+        // Without a TextView, screen readers need the text spelled out
+        setContentDescription(text);
+        requestLayout();
+        invalidate();
+    }
+
+    public CharSequence getText() {
+        return mText;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = MeasureSpec.getSize(widthMeasureSpec);
+        int textWidth = Math.max(0, width - getPaddingLeft() - getPaddingRight());
+
+        if (mText == null) {
+            mLayout = null;
+        } else if (mLayout == null || mLayout.getWidth() != textWidth) {
+            mLayout = TextLayoutCache.obtain(mText, mPaint, textWidth);
+        }
+
+        int height = getPaddingTop() + getPaddingBottom()
+                + (mLayout != null ? mLayout.getHeight() : 0);
+        setMeasuredDimension(width, resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        if (mLayout == null) {
+            return;
+        }
+        canvas.save();
+        canvas.translate(getPaddingLeft(), getPaddingTop());
+        mLayout.draw(canvas);
+        canvas.restore();
+    }
+}
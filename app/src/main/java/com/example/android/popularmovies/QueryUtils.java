@@ -1,22 +1,20 @@
 package com.example.android.popularmovies;
 
+import android.util.JsonReader;
 import android.util.Log;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
 
 /**
  * Class filled with useful methods for connecting to a URL, sending a query, retrieving the
@@ -31,86 +29,256 @@ public final class QueryUtils {
 
     public static final String LOG_TAG = QueryUtils.class.getSimpleName();
 
+    // Names of the available transports, matching the values of the transport preference
+    public static final String TRANSPORT_OKHTTP = "okhttp";
+    public static final String TRANSPORT_URL_CONNECTION = "urlconnection";
+
+    // The name of the selected transport, the scheduler that rate limits and retries requests
+    // made with it, the response cache layered on top, and the resulting transport that all
+    // requests go through
+    private static String sTransportName = TRANSPORT_OKHTTP;
+    private static final RequestScheduler sRequestScheduler =
+            new RequestScheduler(new OkHttpTransport());
+    private static DiskResponseCache sResponseCache;
+    private static volatile HttpTransport sRequestTransport = sRequestScheduler;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Reads a successful response body into its parsed form
+     * @param <T> the type of the parsed response
+     */
+    interface ResponseParser<T> {
+        T parse(InputStream body) throws IOException;
+    }
+
+    // Parses a page of a list response, such as /movie/popular, straight from the stream
+    private static final ResponseParser<MoviePage> MOVIE_PAGE_PARSER =
+            new ResponseParser<MoviePage>() {
+                @Override
+                public MoviePage parse(InputStream body) {
+                    return extractMoviePage(body);
+                }
+            };
+
+    // Parses a single /movie/{id} response straight from the stream
+    private static final ResponseParser<Movie> MOVIE_PARSER = new ResponseParser<Movie>() {
+        @Override
+        public Movie parse(InputStream body) {
+            return extractMovie(body);
+        }
+    };
+
+    // Parses a /movie/{id} response with videos and reviews appended, straight from the stream
+    private static final ResponseParser<MovieExtras> MOVIE_EXTRAS_PARSER =
+            new ResponseParser<MovieExtras>() {
+                @Override
+                public MovieExtras parse(InputStream body) {
+                    return extractMovieExtras(body);
+                }
+            };
+
+    // Parses a /movie/{id}/videos response straight from the stream
+    private static final ResponseParser<List<Trailer>> TRAILERS_PARSER =
+            new ResponseParser<List<Trailer>>() {
+                @Override
+                public List<Trailer> parse(InputStream body) {
+                    return extractTrailers(body);
+                }
+            };
+
+    // Parses a /movie/{id}/reviews response straight from the stream
+    private static final ResponseParser<ReviewPage> REVIEWS_PARSER =
+            new ResponseParser<ReviewPage>() {
+                @Override
+                public ReviewPage parse(InputStream body) {
+                    return extractReviewPage(body);
+                }
+            };
+
+    // Coalesce identical requests that are in flight at the same time, per type of response
+    private static final SingleFlight<MoviePage> sMoviePageFlights = new SingleFlight<>();
+    private static final SingleFlight<Movie> sMovieFlights = new SingleFlight<>();
+    private static final SingleFlight<MovieExtras> sMovieExtrasFlights = new SingleFlight<>();
+    private static final SingleFlight<List<Trailer>> sTrailerFlights = new SingleFlight<>();
+    private static final SingleFlight<ReviewPage> sReviewFlights = new SingleFlight<>();
+
     /**
      * A private constructor is used because a {@link QueryUtils} object should never be created.
      */
     private QueryUtils() {
     }
 
+    /**
+     * Selects the {@link HttpTransport} used for all subsequent requests. The current transport,
+     * and therefore its pool of open connections, is kept if the name has not changed.
+     * @param transportName one of {@link #TRANSPORT_OKHTTP} or {@link #TRANSPORT_URL_CONNECTION}
+     */
+    public static synchronized void useTransport(String transportName) {
+        if (transportName == null || transportName.equals(sTransportName)) {
+            return;
+        }
+
+        if (TRANSPORT_URL_CONNECTION.equals(transportName)) {
+            sRequestScheduler.setTransport(new UrlConnectionTransport());
+        } else {
+            sRequestScheduler.setTransport(new OkHttpTransport());
+        }
+        sTransportName = transportName;
+    }
+
+    /**
+     * Installs a cache that responses are served from, and stored in, for all subsequent requests
+     * @param cache the {@link DiskResponseCache} to use, or null to disable caching
+     */
+    public static synchronized void installResponseCache(DiskResponseCache cache) {
+        sResponseCache = cache;
+        rebuildRequestTransport();
+    }
+
+    /**
+     * @return the installed {@link DiskResponseCache}, which reports its hit, miss and
+     * revalidation counts, or null if none is installed
+     */
+    public static synchronized DiskResponseCache getResponseCache() {
+        return sResponseCache;
+    }
+
+    /**
+     * @return the {@link RequestScheduler} all network requests go through, which reports its
+     * queue depth, throttle and retry counts
+     */
+    public static RequestScheduler getRequestScheduler() {
+        return sRequestScheduler;
+    }
+
+    /**
+     * @return the number of requests that were answered by sharing the result of an identical
+     * request that was already in flight
+     */
+    public static long getCoalescedRequestCount() {
+        return sMoviePageFlights.getDuplicateCount() + sMovieFlights.getDuplicateCount()
+                + sMovieExtrasFlights.getDuplicateCount() + sTrailerFlights.getDuplicateCount()
+                + sReviewFlights.getDuplicateCount();
+    }
+
+    /**
+     * Layers the response cache, if any, on top of the request scheduler so that cache hits never
+     * count against the rate limit
+     */
+    private static void rebuildRequestTransport() {
+        if (sResponseCache != null) {
+            sRequestTransport = new CachingTransport(sRequestScheduler, sResponseCache);
+        } else {
+            sRequestTransport = sRequestScheduler;
+        }
+    }
+
     /**
      * Return a list of {@link Movie} objects that have been built up from parsing a JSON response
      * @param moviedbData a JSON response to be parsed
      * @return a list of {@link Movie} objects that have been retrieved from the JSON response
      */
-    public static List<Movie> extractMovies(String moviedbData) {
+    public static List<Movie> extractMovies(InputStream moviedbData) {
+        MoviePage page = extractMoviePage(moviedbData);
+        return page != null ? new ArrayList<>(page.getMovies()) : new ArrayList<Movie>();
+    }
 
-        // Create an empty ArrayList to add movies to
-        List<Movie> movies = new ArrayList<>();
+    /**
+     * Return a {@link MoviePage} that has been built up from parsing a JSON list response
+     * @param moviedbData a JSON response to be parsed
+     * @return the page retrieved from the JSON response, or null if it couldn't be parsed
+     */
+    public static MoviePage extractMoviePage(InputStream moviedbData) {
 
         // Try to parse the JSON response. If there's a problem with the way the JSON is formatted,
-        // catch the thrown JSONException.
+        // catch the thrown exception.
         try {
+            MoviePage page = MovieJsonParser.readMoviePage(new JsonReader(
+                    new InputStreamReader(moviedbData, UTF_8)));
+            // Make the Movies searchable locally as they come in
+            SearchIndex.addAll(page.getMovies());
+            return page;
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            // Catch any parsing errors and print them to the log
+            Log.e(LOG_TAG, "Problem parsing the movie JSON results", e);
+        }
 
-            // Base url for TheMovieDB poster images
-            final String BASE_IMAGE_URL = "http://image.tmdb.org/t/p/w185";
-
-            // Create JSONObject out of JSON response string
-            JSONObject rootData = new JSONObject(moviedbData);
-            // Extract array of movies from results
-            JSONArray results = rootData.getJSONArray("results");
-
-            // For each movie, extract its title, poster URL, synopsis, release date, and
-            // user rating, then add a new Movie using those parameters to the ArrayList
-            for (int i=0; i<results.length(); i++) {
-                JSONObject movie = results.getJSONObject(i);
-                String movieId = movie.getString("id");
-                String title = movie.getString("title");
-                String posterUrl = BASE_IMAGE_URL + movie.getString("poster_path");
-                String synopsis = movie.getString("overview");
-                String releaseDate = movie.getString("release_date");
-                double userRating = movie.getDouble("vote_average");
-
-                movies.add(new Movie(movieId, title, posterUrl, synopsis, releaseDate, userRating));
-            }
+        return null;
+    }
+
+    /**
+     * Return a single {@link Movie} object that has been build up from parsing a JSON response
+     * @param moviedbData a JSON response to be parsed
+     * @return the {@link Movie} retrieved from the JSON response, or null if it couldn't be parsed
+     */
+    public static Movie extractMovie(InputStream moviedbData) {
 
-        } catch (JSONException e) {
-            // Catch any JSONException errors and print them to the log
+        try {
+            Movie movie = MovieJsonParser.readMovie(new JsonReader(
+                    new InputStreamReader(moviedbData, UTF_8)));
+            SearchIndex.add(movie);
+            return movie;
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            // Catch any parsing errors and print them to the log
             Log.e(LOG_TAG, "Problem parsing the movie JSON results", e);
         }
 
-        // Return completed array of movies
-        return movies;
+        return null;
     }
 
     /**
-     * Return a single {@link Movie} object that has been build up from parsing a JSON response
-     * @param moviedbData
-     * @return
+     * Return the {@link MovieExtras} that have been built up from parsing a JSON response with
+     * videos and reviews appended
+     * @param moviedbData a JSON response to be parsed
+     * @return the trailers and reviews retrieved from the JSON response, or null if it couldn't be
+     * parsed
      */
-    public static Movie extractMovie(String moviedbData) {
+    public static MovieExtras extractMovieExtras(InputStream moviedbData) {
 
         try {
+            return MovieJsonParser.readMovieExtras(new JsonReader(
+                    new InputStreamReader(moviedbData, UTF_8)));
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            // Catch any parsing errors and print them to the log
+            Log.e(LOG_TAG, "Problem parsing the movie extras JSON results", e);
+        }
+
+        return null;
+    }
 
-            // Base url for TheMovieDB poster images
-            final String BASE_IMAGE_URL = "http://image.tmdb.org/t/p/w185";
+    /**
+     * Return a list of {@link Trailer} objects that have been built up from parsing a JSON response
+     * @param moviedbData a JSON response to be parsed
+     * @return the trailers retrieved from the JSON response, or null if it couldn't be parsed
+     */
+    public static List<Trailer> extractTrailers(InputStream moviedbData) {
 
-            // Create JSONObject out of JSON response string
-            JSONObject movie = new JSONObject(moviedbData);
+        try {
+            return MovieJsonParser.readTrailers(new JsonReader(
+                    new InputStreamReader(moviedbData, UTF_8)));
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            // Catch any parsing errors and print them to the log
+            Log.e(LOG_TAG, "Problem parsing the video JSON results", e);
+        }
 
-            // Extract the movie's title, poster URL, synopsis, release date, and
-            // user rating, then create a new Movie object using those parameters
-            String movieId = movie.getString("id");
-            String title = movie.getString("title");
-            String posterUrl = BASE_IMAGE_URL + movie.getString("poster_path");
-            String synopsis = movie.getString("overview");
-            String releaseDate = movie.getString("release_date");
-            double userRating = movie.getDouble("vote_average");
+        return null;
+    }
 
-            return new Movie(movieId, title, posterUrl, synopsis, releaseDate, userRating);
+    /**
+     * Return a page of {@link Review} objects that have been built up from parsing a JSON response
+     * @param moviedbData a JSON response to be parsed
+     * @return the page of reviews retrieved from the JSON response, or null if it couldn't be
+     * parsed
+     */
+    public static ReviewPage extractReviewPage(InputStream moviedbData) {
 
-        } catch (JSONException e) {
-            // Catch any JSONException errors and print them to the log
-            Log.e(LOG_TAG, "Problem parsing the movie JSON results", e);
+        try {
+            return MovieJsonParser.readReviewPage(new JsonReader(
+                    new InputStreamReader(moviedbData, UTF_8)));
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            // Catch any parsing errors and print them to the log
+            Log.e(LOG_TAG, "Problem parsing the review JSON results", e);
         }
 
         return null;
@@ -123,45 +291,80 @@ public final class QueryUtils {
      */
     public static List<Movie> fetchMovieData(String requestUrl) {
 
-        // Create a URL object from the String
-        URL url = createUrl(requestUrl + "&language=en-US");
+        MoviePage page = fetchMoviePage(requestUrl, 1);
 
-        // Initialize response to null
-        String jsonResponse = null;
+        // Return a copy of the list of extracted movies, since the page itself may be shared with
+        // other callers that made the same request
+        return page != null ? new ArrayList<>(page.getMovies()) : new ArrayList<Movie>();
+    }
 
-        // Attempt to connect to the URL and read the response
-        try {
-            jsonResponse = makeHttpRequest(url);
-        } catch (IOException e) {
-            // Catch and log any IOExceptions
-            Log.e(LOG_TAG, "Error closing input stream", e);
-        }
+    /**
+     * Facilitates the creation of the query URL, URL connection, and JSON parsing for a single
+     * page of a paged list
+     * @param requestUrl a String to be used as the query URL
+     * @param page the 1-based number of the page to fetch
+     * @return the {@link MoviePage} parsed from the JSON response, or null if the request failed
+     */
+    public static MoviePage fetchMoviePage(String requestUrl, int page) {
 
-        // Return the list of extracted movies
-        return extractMovies(jsonResponse);
+        // Create a URL object from the String
+        URL url = createUrl(getMoviePageUrl(requestUrl, page));
+
+        // Attempt to connect to the URL and parse the response as it is read
+        return makeCoalescedRequest(url, MOVIE_PAGE_PARSER, sMoviePageFlights);
     }
 
     /**
-     * Facilitates the creation of the query URL and URL connection for Favorites
+     * @param requestUrl the URL of a paged list
+     * @param page the 1-based number of a page
+     * @return the URL the page is requested from
+     */
+    public static String getMoviePageUrl(String requestUrl, int page) {
+        return requestUrl + "&language=en-US&page=" + page;
+    }
+
+    /**
+     * Facilitates the creation of the query URLs and URL connections for Favorites. The requests
+     * are run in parallel, with at most {@code parallelism} of them in flight at a time.
      * @param favorites the stored list of Favorites
      * @param requestUrl a String to be used as the query URL
-     * @return a list of {@link Movie} objects that have been parsed from the JSON response
+     * @param parallelism the maximum number of requests to run at once
+     * @param listener notified with each {@link Movie} as soon as it has been fetched, may be null
+     * @return a list of {@link Movie} objects that have been parsed from the JSON responses, in a
+     * stable order regardless of which request finished first
      */
-    public static List<Movie> fetchFavoritesData(Set<String> favorites, String requestUrl) {
-        // Create an empty list of Movies
-        List<Movie> favMovies = new ArrayList<>();
-        // For each Movie ID in Favorites, fetch its data
-        for (String movieId : favorites) {
-            URL url = createUrl(requestUrl + movieId + "?api_key=" + BuildConfig.TMDB_API_KEY
-                    + "&language=en-US");
-            String jsonResponse = null;
-            try {
-                jsonResponse = makeHttpRequest(url);
-            } catch (IOException e) {
-                Log.e(LOG_TAG, "Error closing input stream", e);
+    public static List<Movie> fetchFavoritesData(Set<String> favorites, final String requestUrl,
+                                                 int parallelism,
+                                                 ParallelFetcher.Listener<Movie> listener) {
+        // Sort the Movie IDs so that the Favorites are always displayed in the same order
+        List<String> movieIds = new ArrayList<>(new TreeSet<>(favorites));
+
+        // Create a request for each Movie ID in Favorites
+        List<Callable<Movie>> requests = new ArrayList<>(movieIds.size());
+        for (final String movieId : movieIds) {
+            requests.add(new Callable<Movie>() {
+                @Override
+                public Movie call() throws Exception {
+                    // Skip the request entirely if the movie has already been seen
+                    Movie cached = MovieCache.get(movieId);
+                    if (cached != null) {
+                        return cached;
+                    }
+                    URL url = createUrl(requestUrl + movieId + "?api_key="
+                            + BuildConfig.TMDB_API_KEY + "&language=en-US");
+                    // Extract a Movie object from the data as it is read
+                    return MovieCache.intern(makeCoalescedRequest(url, MOVIE_PARSER,
+                            sMovieFlights));
+                }
+            });
+        }
+
+        // Run the requests and drop any that failed
+        List<Movie> favMovies = new ArrayList<>(movieIds.size());
+        for (Movie movie : ParallelFetcher.fetchAll(requests, parallelism, listener)) {
+            if (movie != null) {
+                favMovies.add(movie);
             }
-            // Extract a Movie object from the data and add it to the list
-            favMovies.add(extractMovie(jsonResponse));
         }
 
         // Return the list of extracted movies
@@ -169,28 +372,34 @@ public final class QueryUtils {
     }
 
     /**
-     * Facilitates the creation of the query URL and URL connection for a movie's trailers and reviews
+     * Facilitates the creation of the query URL, URL connection, and JSON parsing for a movie's
+     * trailers and reviews, fetched together with append_to_response
      * @param requestUrl a String to be used as the query URL
-     * @return a JSON response to be parsed in a separate method
+     * @return the trailers and reviews parsed from the JSON response, or null if the request failed
      */
-    public static String fetchMovieExtras(String requestUrl) {
-
-        // Create a URL object from the String
-        URL url = createUrl(requestUrl);
-
-        // Initialize response to null
-        String jsonResponse = null;
+    public static MovieExtras fetchMovieExtras(String requestUrl) {
+        return makeCoalescedRequest(createUrl(requestUrl), MOVIE_EXTRAS_PARSER,
+                sMovieExtrasFlights);
+    }
 
-        // Attempt to connect to the URL and read the response
-        try {
-            jsonResponse = makeHttpRequest(url);
-        } catch (IOException e) {
-            // Catch and log any IOExceptions
-            Log.e(LOG_TAG, "Error closing input stream", e);
-        }
+    /**
+     * Facilitates the creation of the query URL, URL connection, and JSON parsing for a movie's
+     * trailers
+     * @param requestUrl a String to be used as the query URL
+     * @return the trailers parsed from the JSON response, or null if the request failed
+     */
+    public static List<Trailer> fetchTrailers(String requestUrl) {
+        return makeCoalescedRequest(createUrl(requestUrl), TRAILERS_PARSER, sTrailerFlights);
+    }
 
-        // We return the raw JSON response to be parsed elsewhere
-        return jsonResponse;
+    /**
+     * Facilitates the creation of the query URL, URL connection, and JSON parsing for a movie's
+     * reviews
+     * @param requestUrl a String to be used as the query URL, including the page to fetch
+     * @return the page of reviews parsed from the JSON response, or null if the request failed
+     */
+    public static ReviewPage fetchReviewPage(String requestUrl) {
+        return makeCoalescedRequest(createUrl(requestUrl), REVIEWS_PARSER, sReviewFlights);
     }
 
     /**
@@ -216,86 +425,78 @@ public final class QueryUtils {
     }
 
     /**
-     * Make an HTTP request to the given URL and return a String as the response
+     * Make an HTTP request to the given URL unless an identical request is already in flight, in
+     * which case its parsed response is shared instead
      * @param url a URL object to connect to
-     * @return a String containing the JSON response
-     * @throws IOException
+     * @param parser the {@link ResponseParser} used to read the response body
+     * @param flights the in-flight requests for this type of response
+     * @param <T> the type of the parsed response
+     * @return the parsed response, or null if the request failed
      */
-    private static String makeHttpRequest(URL url) throws IOException {
+    private static <T> T makeCoalescedRequest(final URL url, final ResponseParser<T> parser,
+                                              SingleFlight<T> flights) {
+        if (url == null) {
+            return null;
+        }
 
-        // Initialize the JSON response to nothing
-        String jsonResponse = "";
+        return flights.execute(url.toString(), new Callable<T>() {
+            @Override
+            public T call() {
+                return makeHttpRequest(url, parser);
+            }
+        });
+    }
+
+    /**
+     * Make an HTTP request to the given URL and parse the response body as it is read
+     * @param url a URL object to connect to
+     * @param parser the {@link ResponseParser} used to read the response body
+     * @param <T> the type of the parsed response
+     * @return the parsed response, or null if the request failed
+     */
+    private static <T> T makeHttpRequest(URL url, ResponseParser<T> parser) {
 
         // If the URL is null, return early
         if (url == null) {
-            return jsonResponse;
+            return null;
         }
 
-        // Initialize the connection and input stream to null
-        HttpURLConnection urlConnection = null;
-        InputStream inputStream = null;
+        // Initialize the response and parsed result to null
+        TransportResponse response = null;
+        T result = null;
 
-        // Attempt to connect to the given URL
+        // Attempt to connect to the given URL, or fetch it from the cache, using the selected
+        // transport
         try {
-            urlConnection = (HttpURLConnection) url.openConnection();
-            urlConnection.setReadTimeout(10000 /* milliseconds */);
-            urlConnection.setConnectTimeout(15000 /* milliseconds */);
-            urlConnection.setRequestMethod("GET");
-            urlConnection.connect();
+            response = sRequestTransport.execute(url, Collections.<String, String>emptyMap());
 
             // If the request was successful (response code 200),
-            // then read the input stream and parse the response
-            if (urlConnection.getResponseCode() == 200) {
-                inputStream = urlConnection.getInputStream();
-                jsonResponse = readFromStream(inputStream);
+            // then parse the response straight from the input stream
+            if (response.getResponseCode() == 200) {
+                result = parser.parse(response.getBody());
             } else {
-                // Else, log the response code
-                Log.e(LOG_TAG, "Error response code: " + urlConnection.getResponseCode());
+                // Else, log the response code, which the scheduler has already retried if it was
+                // a transient error
+                Log.e(LOG_TAG, "Error response code: " + response.getResponseCode() + ", "
+                        + sRequestScheduler);
             }
         } catch (IOException e) {
             // Catch and log any problems with connecting to and retrieving the JSON results
             Log.e(LOG_TAG, "Problem retrieving the movie JSON results", e);
         } finally {
-            // If a connection was made, disconnect from the URL and close the input stream
-            if (urlConnection != null) {
-                urlConnection.disconnect();
-            }
-            if (inputStream != null) {
-                inputStream.close();
-            }
-        }
-
-        // Return the JSON response from the URL
-        return jsonResponse;
-
-    }
-
-    /**
-     * Reads the JSON response from the input stream
-     * @param inputStream an InputStream for reading the JSON response
-     * @return the JSON response
-     * @throws IOException
-     */
-    private static String readFromStream(InputStream inputStream) throws IOException {
-
-        // Create a new StringBuilder
-        StringBuilder output = new StringBuilder();
-
-        // If the input stream is open, read from it
-        if (inputStream != null) {
-            InputStreamReader inputStreamReader = new InputStreamReader(inputStream, Charset.forName("UTF-8"));
-            BufferedReader reader = new BufferedReader(inputStreamReader);
-            // Read a line from the input stream
-            String line = reader.readLine();
-            // Keep reading the input stream until the end is reached
-            while (line != null) {
-                output.append(line);
-                line = reader.readLine();
+            // Close the response, which returns the connection to the pool rather than
+            // disconnecting it
+            if (response != null) {
+                try {
+                    response.close();
+                } catch (IOException e) {
+                    Log.e(LOG_TAG, "Error closing input stream", e);
+                }
             }
         }
 
-        // Return the resulting JSON response
-        return output.toString();
+        // Return the parsed response from the URL
+        return result;
 
     }
 }
@@ -0,0 +1,220 @@
+package com.example.android.popularmovies;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.URL;
+import java.net.UnknownHostException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link HttpTransport} decorator that schedules every network request through a shared
+ * {@link TokenBucket} sized to TheMovieDB's rate limit. Requests that are throttled (429) or fail
+ * with a transient server error or I/O error are retried with jittered exponential backoff,
+ * honoring any Retry-After the server sends, instead of surfacing as an empty result. A request
+ * that would have to wait longer than its retry budget is given up on and its response returned,
+ * and one that can't reach the server at all, such as when the device is offline, fails at once.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class RequestScheduler implements HttpTransport {
+
+    private static final String LOG_TAG = RequestScheduler.class.getSimpleName();
+
+    // TheMovieDB allows bursts of around 40 requests every 10 seconds
+    private static final int BUCKET_CAPACITY = 40;
+    private static final double TOKENS_PER_SECOND = 4;
+
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long BASE_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 10000;
+    // The most time a single request spends waiting between its attempts
+    private static final long RETRY_BUDGET_MS = 30000;
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    private volatile HttpTransport mDelegate;
+    private final TokenBucket mBucket = new TokenBucket(BUCKET_CAPACITY, TOKENS_PER_SECOND);
+    private final Random mRandom = new Random();
+
+    // Counters used to tune throughput against the API's limits
+    private final AtomicInteger mQueueDepth = new AtomicInteger();
+    private final AtomicLong mThrottleCount = new AtomicLong();
+    private final AtomicLong mRetryCount = new AtomicLong();
+
+    /**
+     * Constructor
+     * @param delegate the transport used to perform the requests
+     */
+    public RequestScheduler(HttpTransport delegate) {
+        mDelegate = delegate;
+    }
+
+    /**
+     * Swaps the transport used to perform requests, keeping the rate limit state
+     * @param delegate the new transport
+     */
+    public void setTransport(HttpTransport delegate) {
+        mDelegate = delegate;
+    }
+
+    @Override
+    public TransportResponse execute(URL url, Map<String, String> requestHeaders)
+            throws IOException {
+
+        long waitedMs = 0;
+        for (int attempt = 1; ; attempt++) {
+            waitForToken();
+
+            long retryDelayMs;
+            try {
+                TransportResponse response = mDelegate.execute(url, requestHeaders);
+                int code = response.getResponseCode();
+                if (!isRetryable(code) || attempt == MAX_ATTEMPTS) {
+                    return response;
+                }
+
+                retryDelayMs = backoffMs(attempt);
+                Long retryAfterMs = parseRetryAfter(response.getHeader("Retry-After"));
+                if (retryAfterMs != null) {
+                    retryDelayMs = Math.max(retryDelayMs, retryAfterMs);
+                }
+                if (waitedMs + retryDelayMs > RETRY_BUDGET_MS) {
+                    Log.w(LOG_TAG, "Response code " + code + ", not retrying since the server "
+                            + "asked to wait " + retryDelayMs + "ms");
+                    return response;
+                }
+                if (code == HTTP_TOO_MANY_REQUESTS) {
+                    // Hold back every other request too, not just this one, for as long as the
+                    // server asked. A request that gives up instead leaves the others alone.
+                    mThrottleCount.incrementAndGet();
+                    mBucket.pauseUntil(System.currentTimeMillis() + retryDelayMs);
+                }
+                response.close();
+                Log.w(LOG_TAG, "Response code " + code + ", retrying in " + retryDelayMs + "ms");
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (IOException e) {
+                if (attempt == MAX_ATTEMPTS || !isRetryable(e)) {
+                    throw e;
+                }
+                retryDelayMs = backoffMs(attempt);
+                Log.w(LOG_TAG, "Request failed, retrying in " + retryDelayMs + "ms", e);
+            }
+
+            mRetryCount.incrementAndGet();
+            sleep(retryDelayMs);
+            waitedMs += retryDelayMs;
+        }
+    }
+
+    /**
+     * @return the number of requests currently waiting for the rate limit
+     */
+    public int getQueueDepth() {
+        return mQueueDepth.get();
+    }
+
+    /**
+     * @return the number of times the server has responded with 429 Too Many Requests
+     */
+    public long getThrottleCount() {
+        return mThrottleCount.get();
+    }
+
+    /**
+     * @return the number of requests that have been retried
+     */
+    public long getRetryCount() {
+        return mRetryCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "RequestScheduler[queueDepth=" + getQueueDepth() + ", throttled="
+                + getThrottleCount() + ", retries=" + getRetryCount() + ", tokens="
+                + mBucket.getAvailableTokens() + "]";
+    }
+
+    private void waitForToken() throws IOException {
+        mQueueDepth.incrementAndGet();
+        try {
+            mBucket.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the rate limit");
+        } finally {
+            mQueueDepth.decrementAndGet();
+        }
+    }
+
+    /**
+     * @param attempt the 1-based number of the attempt that just failed
+     * @return a random delay between half and all of {@link #BASE_BACKOFF_MS} doubled for every
+     * attempt so far
+     */
+    private long backoffMs(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << (attempt - 1));
+        // Jitter keeps parallel requests from retrying in lockstep
+        return ceiling / 2 + (long) (mRandom.nextDouble() * ceiling / 2);
+    }
+
+    private static boolean isRetryable(int code) {
+        return code == HTTP_TOO_MANY_REQUESTS || code == 500 || code == 502 || code == 503
+                || code == 504;
+    }
+
+    /**
+     * @param e the failure of a request
+     * @return false if the device has no route to the server, such as when it is offline, so a
+     * retry would only add backoff before failing the same way
+     */
+    private static boolean isRetryable(IOException e) {
+        return !(e instanceof UnknownHostException || e instanceof ConnectException
+                || e instanceof NoRouteToHostException);
+    }
+
+    /**
+     * @param retryAfter the value of a Retry-After header, either in seconds or an HTTP date
+     * @return the delay it asks for in milliseconds, or null if there is none
+     */
+    private static Long parseRetryAfter(String retryAfter) {
+        if (retryAfter == null) {
+            return null;
+        }
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim())) * 1000;
+        } catch (NumberFormatException e) {
+            // Not a number of seconds, so try it as a date
+        }
+        SimpleDateFormat httpDate = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        httpDate.setTimeZone(TimeZone.getTimeZone("GMT"));
+        try {
+            return Math.max(0, httpDate.parse(retryAfter.trim()).getTime()
+                    - System.currentTimeMillis());
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    private static void sleep(long ms) throws InterruptedIOException {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backing off");
+        }
+    }
+}
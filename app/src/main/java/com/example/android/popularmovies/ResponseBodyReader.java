@@ -0,0 +1,230 @@
+package com.example.android.popularmovies;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads HTTP response bodies into memory using byte buffers taken from a small reusable pool.
+ * When the Content-Length is known the buffer is sized for it up front, so the body is only copied
+ * once more, into an exactly sized array.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class ResponseBodyReader {
+
+    private static final String LOG_TAG = ResponseBodyReader.class.getSimpleName();
+
+    // Buffers are pooled in power-of-two size classes between these bounds
+    private static final int MIN_BUFFER_SIZE = 8 * 1024;
+    private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+    private static final int BUFFERS_PER_SIZE_CLASS = 2;
+    private static final int SIZE_CLASSES =
+            Integer.numberOfTrailingZeros(MAX_POOLED_BUFFER_SIZE / MIN_BUFFER_SIZE) + 1;
+
+    @SuppressWarnings("unchecked")
+    private static final ArrayDeque<byte[]>[] sPool = new ArrayDeque[SIZE_CLASSES];
+
+    static {
+        for (int i=0; i<SIZE_CLASSES; i++) {
+            sPool[i] = new ArrayDeque<>(BUFFERS_PER_SIZE_CLASS);
+        }
+    }
+
+    // Counters used to measure how much memory reading responses costs
+    private static final AtomicLong sResponseCount = new AtomicLong();
+    private static final AtomicLong sBytesRead = new AtomicLong();
+    private static final AtomicLong sBytesAllocated = new AtomicLong();
+
+    /**
+     * A private constructor is used because a {@link ResponseBodyReader} object should never be created.
+     */
+    private ResponseBodyReader() {
+    }
+
+    /**
+     * Reads the whole body into an exactly sized byte array
+     * @param body the response body
+     * @param contentLength the length of the body in bytes, or -1 if unknown
+     * @return the body, or an empty array if there is no body
+     * @throws IOException if the body could not be read
+     */
+    public static byte[] readBytes(InputStream body, long contentLength) throws IOException {
+        if (body == null) {
+            return new byte[0];
+        }
+
+        PooledBody pooled = readIntoPooledBuffer(body, contentLength);
+        try {
+            byte[] result = Arrays.copyOf(pooled.mBuffer, pooled.mLength);
+            pooled.mAllocated += pooled.mLength;
+            return result;
+        } finally {
+            release(pooled.mBuffer);
+            recordResponse(pooled);
+        }
+    }
+
+    /**
+     * Reads the body into a buffer taken from the pool, growing it as needed. The buffer must be
+     * released by the caller. The bytes allocated along the way are counted in the returned
+     * {@link PooledBody}, so that concurrent responses aren't attributed to each other.
+     */
+    private static PooledBody readIntoPooledBuffer(InputStream body, long contentLength)
+            throws IOException {
+        // Leave room for one extra byte so that reaching the end of a presized body doesn't
+        // trigger a needless grow before the end of the stream is seen
+        PooledBody pooled = new PooledBody();
+        byte[] buffer = acquire(contentLength > 0 && contentLength < Integer.MAX_VALUE
+                ? (int) contentLength + 1 : MIN_BUFFER_SIZE, pooled);
+        int length = 0;
+        try {
+            int count;
+            while (true) {
+                // Grow into a larger pooled buffer if this one has filled up
+                if (length == buffer.length) {
+                    byte[] larger = acquire(buffer.length * 2, pooled);
+                    System.arraycopy(buffer, 0, larger, 0, length);
+                    release(buffer);
+                    buffer = larger;
+                }
+                count = body.read(buffer, length, buffer.length - length);
+                if (count == -1) {
+                    break;
+                }
+                length += count;
+            }
+        } catch (IOException e) {
+            release(buffer);
+            throw e;
+        }
+        pooled.mBuffer = buffer;
+        pooled.mLength = length;
+        return pooled;
+    }
+
+    private static void recordResponse(PooledBody pooled) {
+        sResponseCount.incrementAndGet();
+        sBytesRead.addAndGet(pooled.mLength);
+        sBytesAllocated.addAndGet(pooled.mAllocated);
+        if (Log.isLoggable(LOG_TAG, Log.VERBOSE)) {
+            Log.v(LOG_TAG, "Read " + pooled.mLength + " bytes, allocated " + pooled.mAllocated
+                    + " bytes");
+        }
+    }
+
+    /**
+     * @return the number of response bodies that have been read
+     */
+    public static long getResponseCount() {
+        return sResponseCount.get();
+    }
+
+    /**
+     * @return the total number of body bytes that have been read
+     */
+    public static long getBytesRead() {
+        return sBytesRead.get();
+    }
+
+    /**
+     * @return the total number of bytes allocated for buffers and the bodies returned
+     */
+    public static long getBytesAllocated() {
+        return sBytesAllocated.get();
+    }
+
+    /**
+     * @return the average number of bytes allocated per response read
+     */
+    public static long getBytesAllocatedPerResponse() {
+        long responses = sResponseCount.get();
+        return responses == 0 ? 0 : sBytesAllocated.get() / responses;
+    }
+
+    /**
+     * @return a summary of the counters, for logging alongside the other cache stats
+     */
+    public static String getStats() {
+        return String.format(Locale.US,
+                "ResponseBodyReader[responses=%d, bytesRead=%d, bytesAllocated=%d, "
+                        + "allocatedPerResponse=%d]",
+                getResponseCount(), getBytesRead(), getBytesAllocated(),
+                getBytesAllocatedPerResponse());
+    }
+
+    /**
+     * Takes a buffer of at least the given size from the pool, allocating one if none is free
+     * @param minSize the minimum size of the buffer
+     * @param pooled the response the buffer is for, which counts any allocation
+     * @return a buffer whose length is at least {@code minSize}
+     */
+    private static byte[] acquire(int minSize, PooledBody pooled) {
+        int size = MIN_BUFFER_SIZE;
+        while (size < minSize && size > 0) {
+            size <<= 1;
+        }
+        if (size <= 0) {
+            size = minSize;
+        }
+
+        int sizeClass = sizeClassOf(size);
+        if (sizeClass >= 0) {
+            synchronized (sPool) {
+                byte[] free = sPool[sizeClass].poll();
+                if (free != null) {
+                    return free;
+                }
+            }
+        }
+
+        pooled.mAllocated += size;
+        return new byte[size];
+    }
+
+    /**
+     * Returns a buffer to the pool so that it can be reused by a later response
+     * @param buffer the buffer to return
+     */
+    private static void release(byte[] buffer) {
+        int sizeClass = sizeClassOf(buffer.length);
+        if (sizeClass < 0) {
+            // Too large or an odd size; let it be garbage collected
+            return;
+        }
+        synchronized (sPool) {
+            if (sPool[sizeClass].size() < BUFFERS_PER_SIZE_CLASS) {
+                sPool[sizeClass].push(buffer);
+            }
+        }
+    }
+
+    /**
+     * @param size a buffer size
+     * @return the index of the pool holding buffers of this size, or -1 if it isn't pooled
+     */
+    private static int sizeClassOf(int size) {
+        if (size < MIN_BUFFER_SIZE || size > MAX_POOLED_BUFFER_SIZE || Integer.bitCount(size) != 1) {
+            return -1;
+        }
+        return Integer.numberOfTrailingZeros(size / MIN_BUFFER_SIZE);
+    }
+
+    /**
+     * A pooled buffer along with the number of body bytes it holds and the number of bytes
+     * allocated while reading them
+     */
+    private static class PooledBody {
+
+        private byte[] mBuffer;
+        private int mLength;
+        private long mAllocated;
+    }
+}
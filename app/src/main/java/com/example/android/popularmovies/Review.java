@@ -0,0 +1,65 @@
+package com.example.android.popularmovies;
+
+/**
+ * Immutable review of a Movie, as read from TheMovieDB reviews results. Long reviews can be shown
+ * collapsed to an excerpt.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class Review {
+
+    // Collapsed reviews show about this many characters
+    private static final int EXCERPT_LENGTH = 300;
+    // Don't bother collapsing a review that is only a little longer than an excerpt
+    private static final int EXCERPT_SLACK = 60;
+
+    private final String mAuthor;
+    private final String mContent;
+    // Built on first use, as most reviews are never shown
+    private String mExcerpt;
+
+    /**
+     * Constructor
+     * @param author the name of the reviewer
+     * @param content the text of the review
+     */
+    public Review(String author, String content) {
+        mAuthor = author;
+        mContent = content;
+    }
+
+    public String getAuthor() {
+        return mAuthor;
+    }
+
+    public String getContent() {
+        return mContent;
+    }
+
+    /**
+     * @return true if the review is long enough to be shown collapsed
+     */
+    public boolean isLong() {
+        return mContent != null && mContent.length() > EXCERPT_LENGTH + EXCERPT_SLACK;
+    }
+
+    /**
+     * @return the start of the review, cut at a word boundary, or the whole review if it is short
+     */
+    public String getExcerpt() {
+        if (!isLong()) {
+            return mContent;
+        }
+        if (mExcerpt == null) {
+            int end = EXCERPT_LENGTH;
+            int lastSpace = mContent.lastIndexOf(' ', end);
+            if (lastSpace > EXCERPT_LENGTH / 2) {
+                end = lastSpace;
+            }
+            mExcerpt = mContent.substring(0, end).trim() + "\u2026";
+        }
+        return mExcerpt;
+    }
+}
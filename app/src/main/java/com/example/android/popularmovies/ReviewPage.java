@@ -0,0 +1,50 @@
+package com.example.android.popularmovies;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single page of a Movie's reviews, as read from TheMovieDB /movie/{id}/reviews.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class ReviewPage {
+
+    private final int mPage;
+    private final int mTotalPages;
+    private final List<Review> mReviews;
+
+    /**
+     * Constructor
+     * @param page the 1-based number of this page
+     * @param totalPages the total number of pages available
+     * @param reviews the reviews on this page
+     */
+    public ReviewPage(int page, int totalPages, List<Review> reviews) {
+        mPage = page;
+        mTotalPages = totalPages;
+        // Pages may be shared between callers, so they must never be modified
+        mReviews = Collections.unmodifiableList(reviews);
+    }
+
+    public int getPage() {
+        return mPage;
+    }
+
+    public int getTotalPages() {
+        return mTotalPages;
+    }
+
+    public List<Review> getReviews() {
+        return mReviews;
+    }
+
+    /**
+     * @return true if there is at least one more page after this one
+     */
+    public boolean hasNextPage() {
+        return mPage < mTotalPages;
+    }
+}
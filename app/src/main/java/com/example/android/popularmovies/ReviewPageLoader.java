@@ -0,0 +1,79 @@
+package com.example.android.popularmovies;
+
+import android.content.Context;
+import android.support.v4.content.AsyncTaskLoader;
+import android.text.TextPaint;
+
+/**
+ * Loader class used to fetch a further page of a Movie's reviews in the background, when the user
+ * scrolls to the end of the reviews loaded so far on the details screen.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class ReviewPageLoader extends AsyncTaskLoader<ReviewPage> {
+
+    private final String mMovieId;
+    private final int mPage;
+    private ReviewPage mResult;
+    // What the reviews will be laid out with, or null to leave them to the UI thread
+    private TextPaint mTextPaint;
+    private int mTextWidth;
+
+    /**
+     * Constructor
+     * @param context the activity utilizing the loader
+     * @param movieId the ID of the Movie to retrieve reviews for
+     * @param page the 1-based number of the page to fetch
+     */
+    public ReviewPageLoader(Context context, String movieId, int page) {
+        super(context);
+        mMovieId = movieId;
+        mPage = page;
+    }
+
+    /**
+     * @return the number of the page being loaded
+     */
+    public int getPage() {
+        return mPage;
+    }
+
+    /**
+     * Has the loader lay out the reviews after loading them, so the UI only attaches the layouts
+     * @param paint the paint the reviews are drawn with
+     * @param width the width of the review text in pixels
+     */
+    public void setReviewTextLayout(TextPaint paint, int width) {
+        mTextPaint = paint != null ? new TextPaint(paint) : null;
+        mTextWidth = width;
+    }
+
+    @Override
+    protected void onStartLoading() {
+        if (mResult != null) {
+            deliverResult(mResult);
+        } else {
+            forceLoad();
+        }
+    }
+
+    @Override
+    public void deliverResult(ReviewPage data) {
+        mResult = data;
+        super.deliverResult(data);
+    }
+
+    @Override
+    public ReviewPage loadInBackground() {
+        if (mMovieId == null) {
+            return null;
+        }
+        ReviewPage page = MovieExtrasLoader.loadReviewPage(mMovieId, mPage);
+        if (page != null) {
+            TextLayoutCache.prepareReviews(page.getReviews(), mTextPaint, mTextWidth);
+        }
+        return page;
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.android.popularmovies;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Process-wide, in-memory inverted index over the titles and synopses of every {@link Movie} the
+ * app has seen. Movies are added as they are parsed from responses or read from local storage, so
+ * searches are answered from local data without any I/O. Every query word is matched as a prefix,
+ * and results are ranked with title matches above synopsis matches and whole words above prefixes.
+ * Only the most recently indexed Movies are kept, as many as {@link MovieCache} holds, so the index
+ * doesn't grow for as long as the process lives.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class SearchIndex {
+
+    // How much a word counts towards a Movie's score depending on where it appears
+    private static final int TITLE_WEIGHT = 4;
+    private static final int SYNOPSIS_WEIGHT = 1;
+
+    // Whole word matches count this many times more than prefix matches
+    private static final int EXACT_MATCH_FACTOR = 2;
+
+    // The most Movies kept in the index; the least recently indexed are evicted first
+    static final int MAX_DOCUMENTS = 500;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    // Word -> (movie ID -> weight), sorted so prefixes can be matched with a range lookup
+    private static final TreeMap<String, Map<String, Integer>> sPostings = new TreeMap<>();
+    // Movie ID -> the indexed Movie and its word weights, used to reindex a Movie when it changes,
+    // least recently indexed first
+    private static final LinkedHashMap<String, Document> sDocuments = new LinkedHashMap<>();
+
+    /**
+     * A private constructor is used because a {@link SearchIndex} object should never be created.
+     */
+    private SearchIndex() {
+    }
+
+    /**
+     * Adds Movies to the index, replacing any older copies. Movies that are already indexed
+     * unchanged are skipped.
+     * @param movies the Movies to index, may be null
+     */
+    public static void addAll(Collection<Movie> movies) {
+        if (movies == null) {
+            return;
+        }
+        synchronized (sPostings) {
+            for (Movie movie : movies) {
+                addLocked(movie);
+            }
+        }
+    }
+
+    /**
+     * Adds a Movie to the index, replacing any older copy
+     * @param movie the Movie to index, may be null
+     */
+    public static void add(Movie movie) {
+        synchronized (sPostings) {
+            addLocked(movie);
+        }
+    }
+
+    private static void addLocked(Movie movie) {
+        if (movie == null || movie.getMovieId() == null) {
+            return;
+        }
+        String movieId = movie.getMovieId();
+        // Removed and put back, so the Movie moves to the most recently indexed end
+        Document old = sDocuments.remove(movieId);
+        if (old != null) {
+            if (old.mMovie == movie || old.mMovie.equals(movie)) {
+                // Keep the latest instance, the words are the same
+                old.mMovie = movie;
+                sDocuments.put(movieId, old);
+                return;
+            }
+            removePostings(movieId, old.mWeights);
+        }
+
+        Map<String, Integer> weights = new HashMap<>();
+        addWords(weights, movie.getTitle(), TITLE_WEIGHT);
+        addWords(weights, movie.getSynopsis(), SYNOPSIS_WEIGHT);
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            Map<String, Integer> postings = sPostings.get(entry.getKey());
+            if (postings == null) {
+                postings = new HashMap<>();
+                sPostings.put(entry.getKey(), postings);
+            }
+            postings.put(movieId, entry.getValue());
+        }
+        sDocuments.put(movieId, new Document(movie, weights));
+
+        while (sDocuments.size() > MAX_DOCUMENTS) {
+            Iterator<Map.Entry<String, Document>> eldest = sDocuments.entrySet().iterator();
+            Map.Entry<String, Document> entry = eldest.next();
+            removePostings(entry.getKey(), entry.getValue().mWeights);
+            eldest.remove();
+        }
+    }
+
+    private static void removePostings(String movieId, Map<String, Integer> weights) {
+        for (String word : weights.keySet()) {
+            Map<String, Integer> postings = sPostings.get(word);
+            if (postings != null) {
+                postings.remove(movieId);
+                if (postings.isEmpty()) {
+                    sPostings.remove(word);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the words of a field to a Movie's word weights. A word that appears in several fields,
+     * or several times, keeps its highest weight.
+     */
+    private static void addWords(Map<String, Integer> weights, String text, int weight) {
+        for (String word : tokenize(text)) {
+            Integer current = weights.get(word);
+            if (current == null || current < weight) {
+                weights.put(word, weight);
+            }
+        }
+    }
+
+    /**
+     * Searches the indexed Movies. A Movie matches when every word of the query is a prefix of
+     * one of the words in its title or synopsis.
+     * @param query the text the user typed
+     * @param limit the maximum number of results
+     * @return the matching Movies, best match first
+     */
+    public static List<Movie> search(String query, int limit) {
+        List<String> queryWords = tokenize(query);
+        if (queryWords.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        final Map<String, Integer> scores;
+        final List<Movie> results = new ArrayList<>();
+        synchronized (sPostings) {
+            scores = scoreWord(queryWords.get(0));
+            for (int i=1; i<queryWords.size() && !scores.isEmpty(); i++) {
+                // Keep only the Movies that also match this word
+                Map<String, Integer> wordScores = scoreWord(queryWords.get(i));
+                Iterator<Map.Entry<String, Integer>> iterator = scores.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<String, Integer> entry = iterator.next();
+                    Integer wordScore = wordScores.get(entry.getKey());
+                    if (wordScore == null) {
+                        iterator.remove();
+                    } else {
+                        entry.setValue(entry.getValue() + wordScore);
+                    }
+                }
+            }
+            for (String movieId : scores.keySet()) {
+                results.add(sDocuments.get(movieId).mMovie);
+            }
+        }
+
+        // Best score first, then the better rated Movie
+        Collections.sort(results, new Comparator<Movie>() {
+            @Override
+            public int compare(Movie lhs, Movie rhs) {
+                int byScore = scores.get(rhs.getMovieId()) - scores.get(lhs.getMovieId());
+                return byScore != 0 ? byScore : Double.compare(rhs.getRating(), lhs.getRating());
+            }
+        });
+        return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+    }
+
+    /**
+     * @param queryWord a single normalized query word
+     * @return the score of every Movie with a word starting with {@code queryWord}
+     */
+    private static Map<String, Integer> scoreWord(String queryWord) {
+        Map<String, Integer> scores = new HashMap<>();
+        for (Map.Entry<String, Map<String, Integer>> word : sPostings.subMap(
+                queryWord, true, queryWord + Character.MAX_VALUE, true).entrySet()) {
+            int factor = word.getKey().length() == queryWord.length() ? EXACT_MATCH_FACTOR : 1;
+            for (Map.Entry<String, Integer> posting : word.getValue().entrySet()) {
+                // A Movie scores by its best matching word
+                int score = posting.getValue() * factor;
+                Integer current = scores.get(posting.getKey());
+                if (current == null || current < score) {
+                    scores.put(posting.getKey(), score);
+                }
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Splits text into lower case words without accents, so that accented titles are found by
+     * unaccented queries
+     * @param text the text to split, may be null
+     * @return the words in the text
+     */
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return words;
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("").toLowerCase(Locale.US);
+        for (String word : NON_WORD.split(normalized)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * An indexed Movie along with the weights of its words
+     */
+    private static final class Document {
+        Movie mMovie;
+        final Map<String, Integer> mWeights;
+
+        Document(Movie movie, Map<String, Integer> weights) {
+            mMovie = movie;
+            mWeights = weights;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.android.popularmovies;
+
+import android.content.Context;
+import android.net.Uri;
+import android.support.v4.content.AsyncTaskLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loader class used to search The Movie DB when the {@link SearchIndex} has no local results for
+ * a query. The Movies found are added to the index as they are parsed, so repeating the search is
+ * answered locally.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class SearchLoader extends AsyncTaskLoader<List<Movie>> {
+
+    private static final String SEARCH_URL = "https://api.themoviedb.org/3/search/movie";
+
+    private final String mQuery;
+    private List<Movie> mResults;
+
+    /**
+     * Constructor
+     * @param context the activity utilizing the loader
+     * @param query the text to search for
+     */
+    public SearchLoader(Context context, String query) {
+        super(context);
+        mQuery = query;
+    }
+
+    /**
+     * @return the text being searched for
+     */
+    public String getQuery() {
+        return mQuery;
+    }
+
+    @Override
+    protected void onStartLoading() {
+        if (mResults != null) {
+            deliverResult(mResults);
+        } else {
+            forceLoad();
+        }
+    }
+
+    @Override
+    public void deliverResult(List<Movie> data) {
+        mResults = data;
+        super.deliverResult(data);
+    }
+
+    @Override
+    public List<Movie> loadInBackground() {
+        if (mQuery == null || mQuery.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        String url = Uri.parse(SEARCH_URL).buildUpon()
+                .appendQueryParameter("api_key", BuildConfig.TMDB_API_KEY)
+                .appendQueryParameter("query", mQuery.trim())
+                .toString();
+        return QueryUtils.fetchMovieData(url);
+    }
+}
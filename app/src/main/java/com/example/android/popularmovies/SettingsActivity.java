@@ -26,6 +26,7 @@ public class SettingsActivity extends PreferenceActivity
         // Attach an OnPreferenceChange listener to update the preference summary when
         // the value is changed
         bindPreferenceSummaryToValue(findPreference(getString(R.string.pref_sort_by_key)));
+        bindPreferenceSummaryToValue(findPreference(getString(R.string.pref_transport_key)));
     }
 
     /**
@@ -0,0 +1,83 @@
+package com.example.android.popularmovies;
+
+import android.util.Log;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces concurrent calls for the same key so that only the first caller does the work and
+ * every caller that arrives while it is still running waits for, and shares, its result.
+ *
+ * @param <V> the type of result
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class SingleFlight<V> {
+
+    private static final String LOG_TAG = SingleFlight.class.getSimpleName();
+
+    private final ConcurrentHashMap<String, FutureTask<V>> mInFlight = new ConcurrentHashMap<>();
+    private final AtomicLong mCallCount = new AtomicLong();
+    private final AtomicLong mDuplicateCount = new AtomicLong();
+
+    /**
+     * Runs the call unless one with the same key is already in flight, in which case its result is
+     * awaited and returned instead
+     * @param key identifies calls which produce the same result
+     * @param call the work to do if no identical call is in flight
+     * @return the result of the call, or null if it failed or the wait was interrupted
+     */
+    public V execute(String key, Callable<V> call) {
+        mCallCount.incrementAndGet();
+
+        FutureTask<V> task = new FutureTask<>(call);
+        FutureTask<V> existing = mInFlight.putIfAbsent(key, task);
+        if (existing != null) {
+            // Someone else is already doing this work; wait for them to finish
+            mDuplicateCount.incrementAndGet();
+            if (Log.isLoggable(LOG_TAG, Log.DEBUG)) {
+                Log.d(LOG_TAG, "Coalesced duplicate request (" + mDuplicateCount.get()
+                        + " so far)");
+            }
+            return await(existing);
+        }
+
+        try {
+            task.run();
+            return await(task);
+        } finally {
+            // Later callers should start a fresh call rather than reuse this result
+            mInFlight.remove(key, task);
+        }
+    }
+
+    /**
+     * @return the number of calls made, including those that were coalesced
+     */
+    public long getCallCount() {
+        return mCallCount.get();
+    }
+
+    /**
+     * @return the number of calls that shared the result of an identical call in flight
+     */
+    public long getDuplicateCount() {
+        return mDuplicateCount.get();
+    }
+
+    private static <V> V await(FutureTask<V> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Log.e(LOG_TAG, "Coalesced call failed", e.getCause());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.android.popularmovies;
+
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.LruCache;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Process-wide cache of measured and laid out text for {@link PrecomputedTextView}. Long texts,
+ * such as synopses and reviews, are laid out on background threads ahead of time, so binding them
+ * only attaches a finished {@link Layout}. A text that wasn't prepared, or was prepared for a
+ * different width, is laid out on the spot as a TextView would.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class TextLayoutCache {
+
+    // Maximum number of layouts kept, comfortably more than a page of reviews
+    private static final int MAX_ENTRIES = 64;
+
+    private static final LruCache<Key, Layout> sLayouts = new LruCache<>(MAX_ENTRIES);
+
+    // Layouts requested from the main thread are built one at a time, in order
+    private static final Executor sExecutor = Executors.newSingleThreadExecutor();
+
+    /**
+     * A private constructor is used because a {@link TextLayoutCache} object should never be
+     * created.
+     */
+    private TextLayoutCache() {
+    }
+
+    /**
+     * Lays out a text in the background, unless it is already cached
+     * @param text the text, may be null
+     * @param paint the paint of the view the text will be shown in
+     * @param width the width of the text in pixels
+     */
+    public static void precompute(final CharSequence text, TextPaint paint, final int width) {
+        if (text == null || width <= 0) {
+            return;
+        }
+        // Paints aren't safe to share between threads, so the layout gets its own copy
+        final TextPaint paintCopy = new TextPaint(paint);
+        sExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                prepare(text, paintCopy, width);
+            }
+        });
+    }
+
+    /**
+     * Lays out the reviews as they are first shown, collapsed. Blocks, so it must be called from a
+     * background thread, such as a loader's.
+     * @param reviews the reviews to lay out
+     * @param paint the paint of the view the reviews will be shown in
+     * @param width the width of the text in pixels
+     */
+    public static void prepareReviews(List<Review> reviews, TextPaint paint, int width) {
+        if (paint == null || width <= 0) {
+            return;
+        }
+        TextPaint paintCopy = new TextPaint(paint);
+        for (Review review : reviews) {
+            prepare(review.getExcerpt(), paintCopy, width);
+        }
+    }
+
+    /**
+     * Lays out a text and caches it, unless it is already cached. Blocks, so it should be called
+     * from a background thread. The paint must not be used by any other thread.
+     */
+    private static void prepare(CharSequence text, TextPaint paint, int width) {
+        if (text == null) {
+            return;
+        }
+        Key key = new Key(text, paint, width);
+        if (sLayouts.get(key) == null) {
+            sLayouts.put(key, build(text, paint, width));
+        }
+    }
+
+    /**
+     * Returns the layout of a text, laying it out now if it wasn't prepared. Must be called on
+     * the main thread.
+     * @param text the text
+     * @param paint the paint of the view the text is shown in
+     * @param width the width of the text in pixels
+     * @return the layout of the text
+     */
+    public static Layout obtain(CharSequence text, TextPaint paint, int width) {
+        Key key = new Key(text, paint, width);
+        Layout layout = sLayouts.get(key);
+        if (layout == null) {
+            layout = build(text, paint, width);
+            sLayouts.put(key, layout);
+        }
+        return layout;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Layout build(CharSequence text, TextPaint paint, int width) {
+        // StaticLayout.Builder is only available from API 23
+        return new StaticLayout(text, paint, Math.max(0, width), Layout.Alignment.ALIGN_NORMAL,
+                1f, 0f, true);
+    }
+
+    /**
+     * Identifies a layout by its text and what it was laid out with. Texts are compared by
+     * content, since the same text is often decoded or read again as a new String.
+     */
+    private static final class Key {
+        final String mText;
+        final float mTextSize;
+        final int mColor;
+        final int mWidth;
+
+        Key(CharSequence text, TextPaint paint, int width) {
+            mText = text.toString();
+            mTextSize = paint.getTextSize();
+            mColor = paint.getColor();
+            mWidth = width;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return mWidth == other.mWidth && mColor == other.mColor
+                    && Float.compare(mTextSize, other.mTextSize) == 0
+                    && mText.equals(other.mText);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = mText.hashCode();
+            result = 31 * result + Float.floatToIntBits(mTextSize);
+            result = 31 * result + mColor;
+            result = 31 * result + mWidth;
+            return result;
+        }
+    }
+}
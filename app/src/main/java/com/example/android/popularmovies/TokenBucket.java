@@ -0,0 +1,83 @@
+package com.example.android.popularmovies;
+
+/**
+ * Token bucket rate limiter. The bucket holds up to {@code capacity} tokens and is refilled at a
+ * steady rate; each request takes one token, waiting for a refill when the bucket is empty. The
+ * whole bucket can also be paused, for instance when the server asks us to back off.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class TokenBucket {
+
+    private final int mCapacity;
+    private final double mTokensPerMs;
+
+    private double mTokens;
+    private long mLastRefill;
+    private long mPausedUntil;
+
+    /**
+     * Constructor
+     * @param capacity the maximum number of tokens, and therefore the largest burst allowed
+     * @param tokensPerSecond the rate at which tokens are added back to the bucket
+     */
+    public TokenBucket(int capacity, double tokensPerSecond) {
+        mCapacity = capacity;
+        mTokensPerMs = tokensPerSecond / 1000;
+        mTokens = capacity;
+        mLastRefill = System.currentTimeMillis();
+    }
+
+    /**
+     * Takes a token, blocking until one is available and the bucket isn't paused
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public synchronized void acquire() throws InterruptedException {
+        while (true) {
+            long now = System.currentTimeMillis();
+            refill(now);
+
+            long waitMs;
+            if (now < mPausedUntil) {
+                waitMs = mPausedUntil - now;
+            } else if (mTokens >= 1) {
+                mTokens -= 1;
+                return;
+            } else {
+                waitMs = (long) Math.ceil((1 - mTokens) / mTokensPerMs);
+            }
+            // Releases the lock while waiting so other threads can queue up or pause the bucket
+            wait(Math.max(1, waitMs));
+        }
+    }
+
+    /**
+     * Stops handing out tokens until the given time, and empties the bucket so that requests
+     * resume gradually afterwards rather than in a burst
+     * @param untilMs the time, in milliseconds, at which tokens may be handed out again
+     */
+    public synchronized void pauseUntil(long untilMs) {
+        if (untilMs > mPausedUntil) {
+            mPausedUntil = untilMs;
+            mTokens = 0;
+            mLastRefill = untilMs;
+        }
+    }
+
+    /**
+     * @return the number of whole tokens currently available
+     */
+    public synchronized int getAvailableTokens() {
+        refill(System.currentTimeMillis());
+        return (int) mTokens;
+    }
+
+    private void refill(long now) {
+        if (now > mLastRefill) {
+            mTokens = Math.min(mCapacity, mTokens + (now - mLastRefill) * mTokensPerMs);
+            mLastRefill = now;
+        }
+    }
+}
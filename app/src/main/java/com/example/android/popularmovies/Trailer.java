@@ -0,0 +1,42 @@
+package com.example.android.popularmovies;
+
+/**
+ * Immutable trailer of a Movie, as read from TheMovieDB videos results.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class Trailer {
+
+    // Base url for watching a YouTube video
+    private static final String BASE_VIDEO_URL = "http://www.youtube.com/watch?v=";
+
+    private final String mName;
+    private final String mKey;
+
+    /**
+     * Constructor
+     * @param name the title of the trailer
+     * @param key the YouTube key of the trailer
+     */
+    public Trailer(String name, String key) {
+        mName = name;
+        mKey = key;
+    }
+
+    public String getName() {
+        return mName;
+    }
+
+    public String getKey() {
+        return mKey;
+    }
+
+    /**
+     * @return the URL the trailer can be watched at
+     */
+    public String getVideoUrl() {
+        return BASE_VIDEO_URL + mKey;
+    }
+}
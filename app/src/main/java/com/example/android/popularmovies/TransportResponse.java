@@ -0,0 +1,89 @@
+package com.example.android.popularmovies;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Response returned by an {@link HttpTransport}. Closing the response releases the underlying
+ * connection back to the transport's pool so that it can be reused by later requests.
+ *
+ * @author Chase Strackbein
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class TransportResponse implements Closeable {
+
+    private final int mResponseCode;
+    private final Map<String, String> mHeaders;
+    private final InputStream mBody;
+    private final long mContentLength;
+    private final Closeable mConnection;
+
+    /**
+     * Constructor
+     * @param responseCode the HTTP status code of the response
+     * @param headers the response headers, keyed by header name
+     * @param body the (already decompressed) response body, or null if there is none
+     * @param contentLength the length of the body in bytes, or -1 if unknown
+     * @param connection the resource to release once the response is closed, may be null
+     */
+    public TransportResponse(int responseCode, Map<String, String> headers, InputStream body,
+                             long contentLength, Closeable connection) {
+        mResponseCode = responseCode;
+        mBody = body;
+        mContentLength = contentLength;
+        mConnection = connection;
+
+        // Store the header names in lower case so that lookups are case-insensitive
+        Map<String, String> lowerCaseHeaders = new HashMap<>();
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey() != null) {
+                lowerCaseHeaders.put(header.getKey().toLowerCase(Locale.US), header.getValue());
+            }
+        }
+        mHeaders = Collections.unmodifiableMap(lowerCaseHeaders);
+    }
+
+    public int getResponseCode() {
+        return mResponseCode;
+    }
+
+    public InputStream getBody() {
+        return mBody;
+    }
+
+    public long getContentLength() {
+        return mContentLength;
+    }
+
+    public Map<String, String> getHeaders() {
+        return mHeaders;
+    }
+
+    /**
+     * Returns the value of a response header
+     * @param name the case-insensitive name of the header
+     * @return the header value, or null if the header was not present
+     */
+    public String getHeader(String name) {
+        return mHeaders.get(name.toLowerCase(Locale.US));
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (mBody != null) {
+                mBody.close();
+            }
+        } finally {
+            if (mConnection != null) {
+                mConnection.close();
+            }
+        }
+    }
+}
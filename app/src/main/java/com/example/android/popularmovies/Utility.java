@@ -4,11 +4,10 @@ import android.content.Context;
 import android.content.SharedPreferences;
 import android.preference.PreferenceManager;
 
-import java.util.HashSet;
 import java.util.Set;
 
 /**
- * A useful class used for SharedPreference-related interactions
+ * A useful class used for SharedPreference-related interactions and Favorites lookups
  *
  * @author Chase Strackbein
  * @version 1.0
@@ -24,25 +23,37 @@ public class Utility {
                 context.getString(R.string.pref_sort_by_default));
     }
 
-    // Used for quickly getting the set of Favorites
-    public static Set<String> getFavorites(Context context) {
+    // Used for quickly getting the preferred HTTP transport
+    public static String getPreferredTransport(Context context) {
         SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
-        return new HashSet<>(preferences.getStringSet(context.getString(R.string.pref_fav_key),
-                new HashSet<String>()));
+        return preferences.getString(context.getString(R.string.pref_transport_key),
+                context.getString(R.string.pref_transport_default));
     }
 
-    // Used to quickly save the new set of Favorites
-    public static void saveFavorites(Context context, Set<String> favorites) {
+    // Used for quickly checking whether stored Favorites should be refreshed from the network
+    public static boolean isFavoritesRefreshEnabled(Context context) {
         SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
-        preferences.edit().putStringSet(context.getString(R.string.pref_fav_key), favorites).apply();
+        return preferences.getBoolean(context.getString(R.string.pref_fav_refresh_key),
+                context.getResources().getBoolean(R.bool.pref_fav_refresh_default));
+    }
+
+    // Used for quickly getting a snapshot of the set of Favorites
+    public static Set<String> getFavorites(Context context) {
+        return FavoritesIndex.getInstance(context).getFavorites();
+    }
+
+    // Used to add a Movie's ID to the Favorites
+    public static void addFavorite(Context context, String movieId) {
+        FavoritesIndex.getInstance(context).add(movieId);
+    }
+
+    // Used to remove a Movie's ID from the Favorites
+    public static void removeFavorite(Context context, String movieId) {
+        FavoritesIndex.getInstance(context).remove(movieId);
     }
 
     // Used to quickly check if a Movie's ID is currently in the Favorites
     public static boolean isFavorite(Context context, String movieId) {
-        SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
-        if (preferences.getStringSet(context.getString(R.string.pref_fav_key), new HashSet<String>()).contains(movieId)) {
-            return true;
-        }
-        return false;
+        return FavoritesIndex.getInstance(context).contains(movieId);
     }
 }
@@ -0,0 +1,210 @@
+package com.example.android.popularmovies;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests writing and reading {@link MovieSnapshot} files, including snapshots that are missing,
+ * cut short, corrupt or from another version of the layout.
+ */
+public class MovieSnapshotTest {
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private static Movie movie(String id, String title) {
+        return new Movie(id, title, "/" + id + ".jpg", "The synopsis of " + title + ", caf\u00e9.",
+                "2016-09-14", 7.5);
+    }
+
+    private static void assertSameMovie(Movie expected, Movie actual) {
+        assertEquals(expected.getMovieId(), actual.getMovieId());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getPosterPath(), actual.getPosterPath());
+        assertEquals(expected.getSynopsis(), actual.getSynopsis());
+        assertEquals(expected.getReleaseDate(), actual.getReleaseDate());
+        assertEquals(expected.getRating(), actual.getRating(), 0);
+    }
+
+    private File writeSnapshot(List<Movie> movies) throws IOException {
+        File file = new File(mFolder.getRoot(), "popular.snap");
+        MovieSnapshot.write(file, movies);
+        assertTrue(file.isFile());
+        return file;
+    }
+
+    @Test
+    public void readWrittenSnapshot_returnsTheSameMovies() throws Exception {
+        List<Movie> movies = Arrays.asList(movie("1", "Arrival"), movie("2", "Sicario"),
+                movie("3", "Le Fabuleux Destin d'Am\u00e9lie Poulain"));
+        File file = writeSnapshot(movies);
+
+        List<Movie> read = MovieSnapshot.read(file);
+
+        assertEquals(movies.size(), read.size());
+        for (int i=0; i<movies.size(); i++) {
+            assertSameMovie(movies.get(i), read.get(i));
+        }
+    }
+
+    @Test
+    public void readWrittenSnapshot_decodesMoviesOutOfOrder() throws Exception {
+        List<Movie> movies = Arrays.asList(movie("1", "Arrival"), movie("2", "Sicario"));
+        List<Movie> read = MovieSnapshot.read(writeSnapshot(movies));
+
+        assertSameMovie(movies.get(1), read.get(1));
+        assertSameMovie(movies.get(0), read.get(0));
+        // Decoded Movies are kept
+        assertSame(read.get(1), read.get(1));
+    }
+
+    @Test
+    public void readWrittenSnapshot_keepsNullFields() throws Exception {
+        Movie empty = new Movie("4", null, null, (String) null, null, 0);
+        List<Movie> read = MovieSnapshot.read(writeSnapshot(Collections.singletonList(empty)));
+
+        assertEquals(1, read.size());
+        Movie movie = read.get(0);
+        assertEquals("4", movie.getMovieId());
+        assertNull(movie.getTitle());
+        assertNull(movie.getPosterPath());
+        assertNull(movie.getSynopsis());
+        assertNull(movie.getReleaseDate());
+        assertEquals(0, movie.getRating(), 0);
+    }
+
+    @Test
+    public void readWrittenSnapshot_ofNoMovies_isEmpty() throws Exception {
+        File file = writeSnapshot(new ArrayList<Movie>());
+        assertTrue(MovieSnapshot.read(file).isEmpty());
+    }
+
+    @Test
+    public void read_missingFile_isEmpty() {
+        assertTrue(MovieSnapshot.read(new File(mFolder.getRoot(), "missing.snap")).isEmpty());
+    }
+
+    @Test
+    public void read_truncatedRecords_isEmpty() throws Exception {
+        File file = writeSnapshot(Arrays.asList(movie("1", "Arrival"), movie("2", "Sicario")));
+        long length = file.length();
+
+        // Cut the last record short, by a little and by a lot
+        for (long cut : new long[] {1, 12, length / 2}) {
+            File copy = copyOf(file, "truncated.snap", length - cut);
+            assertTrue("cut by " + cut, MovieSnapshot.read(copy).isEmpty());
+        }
+    }
+
+    @Test
+    public void read_truncatedHeader_isEmpty() throws Exception {
+        File file = writeSnapshot(Collections.singletonList(movie("1", "Arrival")));
+        assertTrue(MovieSnapshot.read(copyOf(file, "header.snap", 6)).isEmpty());
+        assertTrue(MovieSnapshot.read(copyOf(file, "empty.snap", 0)).isEmpty());
+    }
+
+    @Test
+    public void read_corruptFile_isEmpty() throws Exception {
+        File garbage = mFolder.newFile("garbage.snap");
+        FileOutputStream out = new FileOutputStream(garbage);
+        try {
+            byte[] bytes = new byte[256];
+            Arrays.fill(bytes, (byte) 0x7f);
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+        assertTrue(MovieSnapshot.read(garbage).isEmpty());
+    }
+
+    @Test
+    public void read_corruptRecordLength_isEmpty() throws Exception {
+        File file = writeSnapshot(Collections.singletonList(movie("1", "Arrival")));
+        // The only record starts right after the header and its one offset; make the length of
+        // its ID run past the end of the file
+        writeInt(file, 16, Integer.MAX_VALUE);
+        assertTrue(MovieSnapshot.read(file).isEmpty());
+    }
+
+    @Test
+    public void read_corruptOffset_isEmpty() throws Exception {
+        File file = writeSnapshot(Collections.singletonList(movie("1", "Arrival")));
+        writeInt(file, 12, (int) file.length() + 100);
+        assertTrue(MovieSnapshot.read(file).isEmpty());
+    }
+
+    @Test
+    public void read_otherVersion_isEmpty() throws Exception {
+        File file = writeSnapshot(Collections.singletonList(movie("1", "Arrival")));
+        int version = readInt(file, 4);
+
+        writeInt(file, 4, version + 1);
+        assertTrue(MovieSnapshot.read(file).isEmpty());
+
+        writeInt(file, 4, version - 1);
+        assertTrue(MovieSnapshot.read(file).isEmpty());
+
+        writeInt(file, 4, version);
+        assertEquals(1, MovieSnapshot.read(file).size());
+    }
+
+    @Test
+    public void write_replacesTheOldSnapshot() throws Exception {
+        writeSnapshot(Arrays.asList(movie("1", "Arrival"), movie("2", "Sicario")));
+        File file = writeSnapshot(Collections.singletonList(movie("3", "Moonlight")));
+
+        List<Movie> read = MovieSnapshot.read(file);
+        assertEquals(1, read.size());
+        assertEquals("Moonlight", read.get(0).getTitle());
+        // No temporary files are left behind
+        assertEquals(Arrays.asList(file.getName()), Arrays.asList(mFolder.getRoot().list()));
+    }
+
+    private File copyOf(File file, String name, long length) throws IOException {
+        File copy = new File(mFolder.getRoot(), name);
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        RandomAccessFile out = new RandomAccessFile(copy, "rw");
+        try {
+            byte[] bytes = new byte[(int) length];
+            in.readFully(bytes);
+            out.setLength(0);
+            out.write(bytes);
+        } finally {
+            in.close();
+            out.close();
+        }
+        return copy;
+    }
+
+    private static int readInt(File file, long position) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            randomAccessFile.seek(position);
+            return randomAccessFile.readInt();
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    private static void writeInt(File file, long position, int value) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.seek(position);
+            randomAccessFile.writeInt(value);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+}
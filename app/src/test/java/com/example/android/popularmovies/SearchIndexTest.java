@@ -0,0 +1,138 @@
+package com.example.android.popularmovies;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests matching and ranking in {@link SearchIndex}. The index is shared by the whole process, so
+ * every test indexes Movies with IDs and words of its own.
+ */
+public class SearchIndexTest {
+
+    private static Movie movie(String id, String title, String synopsis, double rating) {
+        return new Movie(id, title, null, synopsis, "2016-09-14", rating);
+    }
+
+    private static List<String> searchIds(String query) {
+        List<String> ids = new ArrayList<>();
+        for (Movie movie : SearchIndex.search(query, 20)) {
+            ids.add(movie.getMovieId());
+        }
+        return ids;
+    }
+
+    private static List<String> sorted(List<String> ids) {
+        Collections.sort(ids);
+        return ids;
+    }
+
+    @Test
+    public void search_ranksWholeWordsAbovePrefixes() {
+        SearchIndex.addAll(Arrays.asList(
+                movie("prefix-1", "Starfleet Academy", null, 9.0),
+                movie("prefix-2", "Star", null, 5.0)));
+
+        assertEquals(Arrays.asList("prefix-2", "prefix-1"), searchIds("star"));
+        // Only the longer word matches a longer prefix
+        assertEquals(Arrays.asList("prefix-1"), searchIds("starf"));
+    }
+
+    @Test
+    public void search_ranksTitlesAboveSynopses() {
+        SearchIndex.addAll(Arrays.asList(
+                movie("field-1", "Lost in Orbit", "A story of gravitation and loss.", 9.0),
+                movie("field-2", "Gravitational", "Nothing else to say.", 4.0),
+                movie("field-3", "Mostly Harmless", "Defying gravitation once more.", 6.0)));
+
+        // A prefix in a title beats a whole word in a synopsis, and synopsis ties go by rating
+        assertEquals(Arrays.asList("field-2", "field-1", "field-3"), searchIds("gravitation"));
+    }
+
+    @Test
+    public void search_ignoresDiacriticsAndCase() {
+        SearchIndex.add(movie("accent-1", "Le Fabuleux Destin d'Am\u00e9lie Poulain",
+                "Une jeune serveuse na\u00efve.", 8.0));
+
+        assertEquals(Arrays.asList("accent-1"), searchIds("amelie"));
+        assertEquals(Arrays.asList("accent-1"), searchIds("AM\u00c9LIE"));
+        assertEquals(Arrays.asList("accent-1"), searchIds("naive"));
+        // Decomposed input is matched too
+        assertEquals(Arrays.asList("accent-1"), searchIds("ame\u0301lie"));
+    }
+
+    @Test
+    public void search_requiresEveryWord() {
+        SearchIndex.addAll(Arrays.asList(
+                movie("words-1", "Bladewing Runners", null, 7.0),
+                movie("words-2", "Bladewing of Glory", "Runners up in a race.", 8.0),
+                movie("words-3", "Bladewing", null, 9.0)));
+
+        assertEquals(3, searchIds("bladewing").size());
+        assertEquals(Arrays.asList("words-1", "words-2"), searchIds("bladewing run"));
+        assertEquals(Arrays.asList("words-2"), searchIds("glory bladewing"));
+        assertTrue(searchIds("bladewing nowhere").isEmpty());
+    }
+
+    @Test
+    public void add_reindexesChangedMovie() {
+        SearchIndex.add(movie("change-1", "Interstellar Drift", "Quixotic voyagers.", 8.0));
+        assertEquals(Arrays.asList("change-1"), searchIds("quixotic"));
+
+        SearchIndex.add(movie("change-1", "Mementoid", "Backwards memories.", 8.0));
+
+        assertTrue(searchIds("interstellar").isEmpty());
+        assertTrue(searchIds("quixotic").isEmpty());
+        assertEquals(Arrays.asList("change-1"), searchIds("mementoid"));
+        assertEquals("Mementoid", SearchIndex.search("mementoid", 1).get(0).getTitle());
+    }
+
+    @Test
+    public void add_evictsTheLeastRecentlyIndexed() {
+        SearchIndex.add(movie("evict-first", "Quokka Eldest", null, 5.0));
+        SearchIndex.add(movie("evict-kept", "Quokka Refreshed", null, 5.0));
+        List<Movie> movies = new ArrayList<>();
+        for (int i=0; i<SearchIndex.MAX_DOCUMENTS - 2; i++) {
+            movies.add(movie("evict-" + i, "Filler " + i, null, 5.0));
+        }
+        SearchIndex.addAll(movies);
+        // Indexing a Movie again makes it the most recent
+        SearchIndex.add(movie("evict-kept", "Quokka Refreshed", null, 5.0));
+        SearchIndex.add(movie("evict-last", "Quokka Newest", null, 5.0));
+
+        assertEquals(Arrays.asList("evict-kept", "evict-last"), sorted(searchIds("quokka")));
+        assertTrue(searchIds("eldest").isEmpty());
+        assertEquals(Arrays.asList("evict-0"), searchIds("filler 0"));
+    }
+
+    @Test
+    public void search_stopsAtTheLimit() {
+        SearchIndex.addAll(Arrays.asList(
+                movie("limit-1", "Zyzzyva One", null, 5.0),
+                movie("limit-2", "Zyzzyva Two", null, 9.0),
+                movie("limit-3", "Zyzzyva Three", null, 7.0)));
+
+        List<Movie> results = SearchIndex.search("zyzzyva", 2);
+        assertEquals(2, results.size());
+        assertEquals("limit-2", results.get(0).getMovieId());
+        assertEquals("limit-3", results.get(1).getMovieId());
+    }
+
+    @Test
+    public void search_withoutWords_isEmpty() {
+        assertTrue(SearchIndex.search("", 20).isEmpty());
+        assertTrue(SearchIndex.search(" -- ", 20).isEmpty());
+        assertTrue(SearchIndex.search(null, 20).isEmpty());
+    }
+
+    @Test
+    public void tokenize_splitsOnPunctuation() {
+        assertEquals(Arrays.asList("spider", "man", "no", "way", "home"),
+                SearchIndex.tokenize("Spider-Man: No Way Home"));
+    }
+}